@@ -0,0 +1,71 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.time.Duration;
+
+/**
+ * Timings and negotiated parameters of the latest connect of a socket.
+ */
+public final class ConnectReport {
+
+    private final Duration connectTime;
+    private final Duration handshakeTime;
+    private final String protocol;
+    private final String cipherSuite;
+
+    public ConnectReport(Duration connectTime, Duration handshakeTime, String protocol, String cipherSuite) {
+        this.connectTime = connectTime;
+        this.handshakeTime = handshakeTime;
+        this.protocol = protocol;
+        this.cipherSuite = cipherSuite;
+    }
+
+    /**
+     * @return time taken to establish the transport connection
+     */
+    public Duration connectTime() {
+        return connectTime;
+    }
+
+    /**
+     * @return time taken by the TLS handshake, zero for plain connections
+     */
+    public Duration handshakeTime() {
+        return handshakeTime;
+    }
+
+    /**
+     * @return negotiated TLS protocol, empty for plain connections
+     */
+    public String protocol() {
+        return protocol;
+    }
+
+    /**
+     * @return negotiated TLS cipher suite, empty for plain connections
+     */
+    public String cipherSuite() {
+        return cipherSuite;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectReport{" + "connectTime=" + connectTime + ", handshakeTime=" + handshakeTime + ", protocol='"
+                + protocol + '\'' + ", cipherSuite='" + cipherSuite + '\'' + '}';
+    }
+}
@@ -0,0 +1,35 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+/**
+ * A point in time after which an operation is considered to have failed.
+ */
+public interface Deadline {
+
+    /**
+     * @return true if the deadline has passed
+     */
+    boolean isExpired();
+
+    /**
+     * Cancels the deadline so that it never expires.
+     *
+     * @return true if the deadline was cancelled, false if it had already expired or was cancelled before
+     */
+    boolean cancel();
+}
@@ -0,0 +1,224 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct buffers in power of two size classes. Buffers are handed out with exactly the requested capacity, as
+ * slices of a pooled buffer of the size class, and should be given back with {@link #release(ByteBuffer)} once they are
+ * no longer used. Callers that size their buffers from {@link ByteBuffer#capacity()}, such as tls-channel, see the size
+ * they asked for. Idle buffers are kept up to a limit and dropped once they have been idle for longer than the idle
+ * timeout, so a burst of connections does not pin its direct memory forever. Buffers larger than the largest size class
+ * are not pooled. Thread-safe.
+ */
+public class DirectBufferPool {
+
+    private static final DirectBufferPool SHARED = new DirectBufferPool();
+
+    private static final int MIN_SIZE_CLASS_SHIFT = 9; // 512 B
+
+    private final int maxSizeClassShift;
+    private final long maxIdleBytes;
+    private final long idleTimeoutNanos;
+    private final List<ConcurrentLinkedDeque<IdleBuffer>> sizeClasses;
+    // buffers handed out, by identity as ByteBuffer equality compares contents, to their pooled buffer
+    private final Map<ByteBuffer, ByteBuffer> handedOut;
+
+    private final AtomicLong idleBytes;
+    private final AtomicLong inUseBytes;
+    private final AtomicLong allocations;
+    private final AtomicLong reuses;
+
+    /**
+     * @return the process-wide pool
+     */
+    public static DirectBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Pool of buffers up to 1 MiB, keeping at most 64 MiB of idle buffers for 30 seconds.
+     */
+    public DirectBufferPool() {
+        this(1 << 20, 64L << 20, 30_000);
+    }
+
+    /**
+     * @param maxPooledSize     capacity of the largest pooled buffer, rounded up to a power of two
+     * @param maxIdleBytes      total capacity of idle buffers kept for reuse
+     * @param idleTimeoutMillis milliseconds an idle buffer is kept for reuse
+     */
+    public DirectBufferPool(int maxPooledSize, long maxIdleBytes, long idleTimeoutMillis) {
+        if (maxPooledSize < 1 || maxPooledSize > (1 << 30)) {
+            throw new IllegalArgumentException("maxPooledSize must be between 1 and 2^30");
+        }
+        this.maxSizeClassShift = Math.max(MIN_SIZE_CLASS_SHIFT, sizeClassShift(maxPooledSize));
+        this.maxIdleBytes = maxIdleBytes;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.sizeClasses = new ArrayList<>();
+        for (int shift = MIN_SIZE_CLASS_SHIFT; shift <= maxSizeClassShift; shift++) {
+            sizeClasses.add(new ConcurrentLinkedDeque<>());
+        }
+        this.handedOut = Collections.synchronizedMap(new IdentityHashMap<>());
+        this.idleBytes = new AtomicLong();
+        this.inUseBytes = new AtomicLong();
+        this.allocations = new AtomicLong();
+        this.reuses = new AtomicLong();
+    }
+
+    private static int sizeClassShift(int size) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(1, size) - 1);
+        return Math.max(MIN_SIZE_CLASS_SHIFT, shift);
+    }
+
+    /**
+     * @param size capacity of the buffer
+     * @return a cleared direct buffer with capacity of size
+     */
+    public ByteBuffer acquire(int size) {
+        int shift = sizeClassShift(size);
+        if (shift > maxSizeClassShift) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+            allocations.incrementAndGet();
+            inUseBytes.addAndGet(buffer.capacity());
+            return buffer;
+        }
+        ConcurrentLinkedDeque<IdleBuffer> sizeClass = sizeClasses.get(shift - MIN_SIZE_CLASS_SHIFT);
+        IdleBuffer idleBuffer = sizeClass.pollFirst();
+        ByteBuffer pooled;
+        if (idleBuffer != null) {
+            pooled = idleBuffer.buffer;
+            idleBytes.addAndGet(-pooled.capacity());
+            reuses.incrementAndGet();
+        }
+        else {
+            pooled = ByteBuffer.allocateDirect(1 << shift);
+            allocations.incrementAndGet();
+        }
+        evictExpired(sizeClass);
+        // the whole size class is in use, not just the slice
+        inUseBytes.addAndGet(pooled.capacity());
+        pooled.clear();
+        pooled.limit(size);
+        ByteBuffer buffer = pooled.slice();
+        handedOut.put(buffer, pooled);
+        return buffer;
+    }
+
+    /**
+     * Gives a buffer acquired from this pool back for reuse. The buffer must not be used after it is released.
+     *
+     * @param buffer buffer acquired from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        ByteBuffer pooled = handedOut.remove(buffer);
+        if (pooled == null) {
+            // oversized buffers are not pooled, they are left for the garbage collector
+            inUseBytes.addAndGet(-buffer.capacity());
+            return;
+        }
+        int capacity = pooled.capacity();
+        inUseBytes.addAndGet(-capacity);
+        int shift = Integer.numberOfTrailingZeros(capacity);
+        ConcurrentLinkedDeque<IdleBuffer> sizeClass = sizeClasses.get(shift - MIN_SIZE_CLASS_SHIFT);
+        if (idleBytes.addAndGet(capacity) > maxIdleBytes) {
+            idleBytes.addAndGet(-capacity);
+        }
+        else {
+            // most recently used first, they are the ones still in cache
+            sizeClass.offerFirst(new IdleBuffer(pooled, System.nanoTime()));
+        }
+        evictExpired(sizeClass);
+    }
+
+    /**
+     * Drops idle buffers from the tail of the size class, where the buffers that have been idle the longest are.
+     */
+    private void evictExpired(ConcurrentLinkedDeque<IdleBuffer> sizeClass) {
+        long now = System.nanoTime();
+        IdleBuffer oldest = sizeClass.peekLast();
+        while (oldest != null && now - oldest.releasedAt > idleTimeoutNanos) {
+            if (sizeClass.removeLastOccurrence(oldest)) {
+                idleBytes.addAndGet(-oldest.buffer.capacity());
+            }
+            oldest = sizeClass.peekLast();
+        }
+    }
+
+    /**
+     * Drops all idle buffers that have been idle longer than the idle timeout.
+     */
+    public void trim() {
+        for (ConcurrentLinkedDeque<IdleBuffer> sizeClass : sizeClasses) {
+            evictExpired(sizeClass);
+        }
+    }
+
+    /**
+     * @return total capacity of the pooled buffers behind the buffers acquired and not yet released
+     */
+    public long getInUseBytes() {
+        return inUseBytes.get();
+    }
+
+    /**
+     * @return total capacity of idle buffers kept for reuse
+     */
+    public long getIdleBytes() {
+        return idleBytes.get();
+    }
+
+    /**
+     * @return amount of buffers allocated because no idle buffer was available
+     */
+    public long getAllocations() {
+        return allocations.get();
+    }
+
+    /**
+     * @return amount of acquires served with an idle buffer
+     */
+    public long getReuses() {
+        return reuses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectBufferPool{" + "inUseBytes=" + inUseBytes.get() + ", idleBytes=" + idleBytes.get()
+                + ", allocations=" + allocations.get() + ", reuses=" + reuses.get() + '}';
+    }
+
+    private static final class IdleBuffer {
+
+        private final ByteBuffer buffer;
+        private final long releasedAt;
+
+        IdleBuffer(ByteBuffer buffer, long releasedAt) {
+            this.buffer = buffer;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
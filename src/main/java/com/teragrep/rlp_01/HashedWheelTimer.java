@@ -0,0 +1,204 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed wheel timer for tracking large amounts of deadlines with coarse precision. Scheduling and cancelling a
+ * deadline are O(1) and never contend on a lock, expirations are fired from the thread running this timer once per
+ * tick. Expiration tasks must be cheap, typically they only wake up the thread that owns the expired operation.
+ */
+public class HashedWheelTimer implements Runnable, Closeable {
+
+    private final long tickNanos;
+    private final List<ArrayDeque<WheelDeadline>> wheel;
+    private final int mask;
+    private final ConcurrentLinkedQueue<WheelDeadline> pendingDeadlines;
+    private final long startTime;
+    private long tick;
+    private volatile boolean stopped;
+
+    /**
+     * Timer with 10 millisecond ticks on a wheel of 512 buckets.
+     */
+    public HashedWheelTimer() {
+        this(10, 512);
+    }
+
+    /**
+     * @param tickMillis precision of the timer in milliseconds
+     * @param wheelSize  amount of buckets in the wheel, rounded up to the next power of two
+     */
+    public HashedWheelTimer(long tickMillis, int wheelSize) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis must be at least 1");
+        }
+        if (wheelSize < 1 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^30");
+        }
+        int normalizedSize = 1;
+        while (normalizedSize < wheelSize) {
+            normalizedSize = normalizedSize << 1;
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new ArrayList<>(normalizedSize);
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.mask = normalizedSize - 1;
+        this.pendingDeadlines = new ConcurrentLinkedQueue<>();
+        this.startTime = System.nanoTime();
+        this.tick = 0;
+        this.stopped = false;
+    }
+
+    /**
+     * Schedules a deadline. May be called from any thread.
+     *
+     * @param expiration  task to run on the timer thread when the deadline expires
+     * @param delayMillis milliseconds from now until the deadline
+     * @return the scheduled deadline
+     */
+    public Deadline schedule(Runnable expiration, long delayMillis) {
+        WheelDeadline deadline = new WheelDeadline(
+                expiration,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)
+        );
+        pendingDeadlines.add(deadline);
+        return deadline;
+    }
+
+    @Override
+    public void run() {
+        while (!stopped) {
+            long tickDeadline = waitForNextTick();
+            transferPendingDeadlines();
+            expireBucket(wheel.get((int) (tick & mask)), tickDeadline);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long tickDeadline = startTime + (tick + 1) * tickNanos;
+        long sleepNanos = tickDeadline - System.nanoTime();
+        while (sleepNanos > 0 && !stopped) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+            catch (InterruptedException e) {
+                stopped = true;
+                Thread.currentThread().interrupt();
+            }
+            sleepNanos = tickDeadline - System.nanoTime();
+        }
+        return tickDeadline;
+    }
+
+    private void transferPendingDeadlines() {
+        WheelDeadline deadline;
+        while ((deadline = pendingDeadlines.poll()) != null) {
+            if (deadline.isCancelled()) {
+                continue;
+            }
+            long calculatedTick = (deadline.deadlineNanos - startTime) / tickNanos;
+            deadline.remainingRounds = (calculatedTick - tick) / wheel.size();
+            // deadlines already in the past go to the current bucket
+            long targetTick = Math.max(calculatedTick, tick);
+            wheel.get((int) (targetTick & mask)).add(deadline);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<WheelDeadline> bucket, long tickDeadline) {
+        Iterator<WheelDeadline> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            WheelDeadline deadline = iterator.next();
+            if (deadline.isCancelled()) {
+                iterator.remove();
+            }
+            else if (deadline.remainingRounds <= 0) {
+                if (deadline.deadlineNanos <= tickDeadline) {
+                    iterator.remove();
+                    deadline.expire();
+                }
+            }
+            else {
+                deadline.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Stops the timer, deadlines that have not yet expired will never expire.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+    }
+
+    private static final class WheelDeadline implements Deadline {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable expiration;
+        private final long deadlineNanos;
+        private final AtomicInteger state;
+        // only accessed by the timer thread
+        private long remainingRounds;
+
+        WheelDeadline(Runnable expiration, long deadlineNanos) {
+            this.expiration = expiration;
+            this.deadlineNanos = deadlineNanos;
+            this.state = new AtomicInteger(INIT);
+            this.remainingRounds = 0;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean cancel() {
+            return state.compareAndSet(INIT, CANCELLED);
+        }
+
+        void expire() {
+            if (state.compareAndSet(INIT, EXPIRED)) {
+                try {
+                    expiration.run();
+                }
+                catch (RuntimeException e) {
+                    System.err.println("Deadline expiration failed: <" + e.getMessage() + ">");
+                }
+            }
+        }
+    }
+}
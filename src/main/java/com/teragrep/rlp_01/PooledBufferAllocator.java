@@ -0,0 +1,44 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import tlschannel.BufferAllocator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocates the plaintext and ciphertext buffers of TLS channels from a {@link DirectBufferPool}, so that connections
+ * share buffers instead of each allocating their own on every connect.
+ */
+public class PooledBufferAllocator implements BufferAllocator {
+
+    private final DirectBufferPool directBufferPool;
+
+    public PooledBufferAllocator(DirectBufferPool directBufferPool) {
+        this.directBufferPool = directBufferPool;
+    }
+
+    @Override
+    public ByteBuffer allocate(int size) {
+        return directBufferPool.acquire(size);
+    }
+
+    @Override
+    public void free(ByteBuffer buffer) {
+        directBufferPool.release(buffer);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.util.Random;
+
+/**
+ * Fires with the given probability.
+ */
+public final class RandomFaultTrigger implements FaultTrigger {
+
+    private final double probability;
+    private final Random random;
+
+    public RandomFaultTrigger(double probability) {
+        this(probability, new Random());
+    }
+
+    public RandomFaultTrigger(double probability, Random random) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("probability must be between 0 and 1");
+        }
+        this.probability = probability;
+        this.random = random;
+    }
+
+    @Override
+    public synchronized boolean fire() {
+        return random.nextDouble() < probability;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+/**
+ * Listens to the acknowledgements of a {@link RelpBatch}, called as each acknowledgement is read from the server, while
+ * the rest of the batch may still be in flight.
+ */
+@FunctionalInterface
+public interface RelpAckListener {
+
+    /**
+     * @param requestId    request the acknowledgement is for
+     * @param responseCode response code of the acknowledgement, -1 if it carries none
+     */
+    void acked(long requestId, int responseCode);
+}
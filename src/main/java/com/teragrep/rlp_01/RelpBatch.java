@@ -32,7 +32,19 @@ public class RelpBatch {
     // Not processed queue, for asynchronous use.
     private final TreeSet<Long> workQueue;
 
+    private static final RelpAckListener NO_LISTENER = (requestId, responseCode) -> {
+    };
+    private final RelpAckListener ackListener;
+
     public RelpBatch() {
+        this(NO_LISTENER);
+    }
+
+    /**
+     * @param ackListener called with each acknowledgement as it is read, on the thread committing the batch
+     */
+    public RelpBatch(RelpAckListener ackListener) {
+        this.ackListener = ackListener;
         this.reqID = new RequestID();
         this.requests = new TreeMap<Long, RelpFrameTX>();
         this.responses = new TreeMap<Long, RelpFrameRX>();
@@ -79,6 +91,18 @@ public class RelpBatch {
     public void putResponse(Long id, RelpFrameRX response) {
         if (this.requests.containsKey(id)) {
             this.responses.put(id, response);
+            if (this.ackListener != NO_LISTENER) {
+                this.ackListener.acked(id, responseCode(response));
+            }
+        }
+    }
+
+    private int responseCode(RelpFrameRX response) {
+        try {
+            return response.getResponseCode();
+        }
+        catch (IllegalArgumentException e) {
+            return -1;
         }
     }
 
@@ -0,0 +1,228 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A Selector shared by many connections. The thread running this event loop is the only one that touches the Selector;
+ * connection threads attempt their non-blocking I/O directly and only park on the event loop when their channel is not
+ * ready. This way a connection does not own a Selector of its own and the file descriptors that come with it.
+ */
+public class RelpClientEventLoop implements Runnable, Closeable {
+
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Runnable> pendingTasks;
+    private volatile boolean stopped;
+
+    public RelpClientEventLoop() throws IOException {
+        this.selector = Selector.open();
+        this.pendingTasks = new ConcurrentLinkedQueue<>();
+        this.stopped = false;
+    }
+
+    @Override
+    public void run() {
+        while (!stopped) {
+            try {
+                selector.select();
+                runPendingTasks();
+                Set<SelectionKey> polledEvents = selector.selectedKeys();
+                Iterator<SelectionKey> eventIter = polledEvents.iterator();
+                while (eventIter.hasNext()) {
+                    SelectionKey currentKey = eventIter.next();
+                    eventIter.remove();
+                    Interest interest = (Interest) currentKey.attachment();
+                    try {
+                        int readyOps = currentKey.readyOps();
+                        // one-shot, the waiting connection re-arms the interest when it needs it again
+                        currentKey.interestOps(0);
+                        interest.ready(readyOps);
+                    }
+                    catch (CancelledKeyException e) {
+                        interest.fail(new ClosedChannelException());
+                    }
+                }
+            }
+            catch (IOException e) {
+                System.err.println("Event loop select failed: <" + e.getMessage() + ">");
+            }
+        }
+        // release the connections still parked on this event loop
+        runPendingTasks();
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Interest) {
+                ((Interest) attachment).fail(new ClosedChannelException());
+            }
+        }
+        try {
+            selector.close();
+        }
+        catch (IOException e) {
+            // don't care
+        }
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void execute(Runnable task) {
+        if (stopped) {
+            throw new IllegalStateException("Event loop is closed");
+        }
+        pendingTasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Registers interest for the given operations of the channel. The returned {@link Interest} completes on the event
+     * loop thread when the channel becomes ready.
+     *
+     * @param channel non-blocking channel to wait on
+     * @param ops     SelectionKey operations of interest
+     * @return interest to wait on
+     */
+    Interest register(SelectableChannel channel, int ops) {
+        Interest interest = new Interest();
+        execute(() -> {
+            try {
+                SelectionKey key = channel.keyFor(selector);
+                if (key == null) {
+                    channel.register(selector, ops, interest);
+                }
+                else {
+                    key.attach(interest);
+                    key.interestOps(ops);
+                }
+            }
+            catch (ClosedChannelException | CancelledKeyException e) {
+                interest.fail(new ClosedChannelException());
+            }
+        });
+        return interest;
+    }
+
+    /**
+     * Withdraws the interest of a channel that is no longer waited on.
+     */
+    void deregister(SelectableChannel channel) {
+        execute(() -> {
+            SelectionKey key = channel.keyFor(selector);
+            if (key != null && key.isValid()) {
+                key.interestOps(0);
+            }
+        });
+    }
+
+    /**
+     * Lets the event loop deregister a closed channel.
+     */
+    void wakeup() {
+        selector.wakeup();
+    }
+
+    @Override
+    public void close() {
+        stopped = true;
+        selector.wakeup();
+    }
+
+    /**
+     * A single wait for readiness, completed by the event loop thread.
+     */
+    static final class Interest {
+
+        private int readyOps = 0;
+        private IOException failure = null;
+        private boolean done = false;
+        private boolean woken = false;
+
+        synchronized void ready(int readyOps) {
+            if (done) {
+                return;
+            }
+            this.readyOps = readyOps;
+            this.done = true;
+            notifyAll();
+        }
+
+        synchronized void fail(IOException failure) {
+            if (done) {
+                return;
+            }
+            this.failure = failure;
+            this.done = true;
+            notifyAll();
+        }
+
+        /**
+         * Makes a pending {@link #await(long)} return without the channel being ready.
+         */
+        synchronized void wakeup() {
+            this.woken = true;
+            notifyAll();
+        }
+
+        /**
+         * @param timeout milliseconds to wait, 0 waits indefinitely
+         * @return ready operations of the channel, 0 if woken up before the channel was ready
+         */
+        synchronized int await(long timeout) throws IOException, TimeoutException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (!done && !woken) {
+                long remainingMillis = 0;
+                if (timeout > 0) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException("event loop wait timed out");
+                    }
+                    // round up so that the wait never degenerates into wait(0)
+                    remainingMillis = TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
+                }
+                try {
+                    wait(remainingMillis);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("event loop wait interrupted");
+                }
+            }
+            woken = false;
+            if (failure != null) {
+                throw failure;
+            }
+            return readyOps;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of {@link RelpClientEventLoop}s, each running on a thread of its own. Connections are spread on the event
+ * loops in round-robin order, typically one event loop per core is enough for thousands of connections.
+ */
+public class RelpClientEventLoopGroup implements Closeable {
+
+    private final RelpClientEventLoop[] eventLoops;
+    private final Thread[] eventLoopThreads;
+    private final AtomicInteger nextIndex;
+
+    public RelpClientEventLoopGroup(int size) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException("Event loop group size must be at least 1");
+        }
+        this.eventLoops = new RelpClientEventLoop[size];
+        this.eventLoopThreads = new Thread[size];
+        this.nextIndex = new AtomicInteger();
+        for (int i = 0; i < size; i++) {
+            eventLoops[i] = new RelpClientEventLoop();
+            eventLoopThreads[i] = new Thread(eventLoops[i], "rlp_01-eventloop-" + i);
+            eventLoopThreads[i].setDaemon(true);
+            eventLoopThreads[i].start();
+        }
+    }
+
+    /**
+     * @return the event loop for the next connection
+     */
+    public RelpClientEventLoop next() {
+        return eventLoops[Math.floorMod(nextIndex.getAndIncrement(), eventLoops.length)];
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RelpClientEventLoop eventLoop : eventLoops) {
+            eventLoop.close();
+        }
+        for (Thread eventLoopThread : eventLoopThreads) {
+            try {
+                eventLoopThread.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while stopping event loops", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decorates a socket with the given {@link SocketFaults} to see how the client behaves over a degraded network, without
+ * privileges to shape traffic. Combined with {@link RelpClientLoopbackSocket} the whole setup runs in memory.
+ */
+public final class RelpClientFaultInjectingSocket extends RelpClientSocket {
+
+    private final RelpClientSocket relpClientSocket;
+    private final SocketFaults faults;
+    private final Random random;
+    private final Object lock;
+
+    private boolean reset;
+    private boolean halfOpen;
+
+    public RelpClientFaultInjectingSocket(RelpClientSocket relpClientSocket, SocketFaults faults) {
+        this(relpClientSocket, faults, new Random());
+    }
+
+    public RelpClientFaultInjectingSocket(RelpClientSocket relpClientSocket, SocketFaults faults, Random random) {
+        this.relpClientSocket = relpClientSocket;
+        this.faults = faults;
+        this.random = random;
+        this.lock = new Object();
+        this.reset = false;
+        this.halfOpen = false;
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return relpClientSocket.getReadTimeout();
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        relpClientSocket.setReadTimeout(readTimeout);
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return relpClientSocket.getWriteTimeout();
+    }
+
+    @Override
+    public void setWriteTimeout(int writeTimeout) {
+        relpClientSocket.setWriteTimeout(writeTimeout);
+    }
+
+    @Override
+    public int getConnectionTimeout() {
+        return relpClientSocket.getConnectionTimeout();
+    }
+
+    @Override
+    public void setConnectionTimeout(int connectionTimeout) {
+        relpClientSocket.setConnectionTimeout(connectionTimeout);
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        relpClientSocket.setKeepAlive(on);
+    }
+
+    @Override
+    public void setBusyPoll(int busyPoll) {
+        relpClientSocket.setBusyPoll(busyPoll);
+    }
+
+    @Override
+    public int getBusyPoll() {
+        return relpClientSocket.getBusyPoll();
+    }
+
+    @Override
+    protected int getCoalescingLimit() {
+        return relpClientSocket.getCoalescingLimit();
+    }
+
+    @Override
+    void setDeadline(Deadline deadline) {
+        super.setDeadline(deadline);
+        relpClientSocket.setDeadline(deadline);
+    }
+
+    @Override
+    ConnectReport getConnectReport() {
+        return relpClientSocket.getConnectReport();
+    }
+
+    @Override
+    public void open(String hostname, int port) throws IOException, TimeoutException {
+        reset = false;
+        halfOpen = false;
+        relpClientSocket.open(hostname, port);
+    }
+
+    @Override
+    public void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        if (reset) {
+            throw new IOException("write failed");
+        }
+        injectFaults(getWriteTimeout(), "write timed out");
+        if (halfOpen || faults.halfOpenTrigger.fire()) {
+            // the peer is gone without a word, writes vanish
+            halfOpen = true;
+            byteBuffer.position(byteBuffer.limit());
+            return;
+        }
+
+        int limit = byteBuffer.limit();
+        try {
+            while (byteBuffer.hasRemaining()) {
+                int chunk = byteBuffer.remaining();
+                if (faults.maxWriteBytes > 0) {
+                    chunk = Math.min(chunk, faults.maxWriteBytes);
+                }
+                byteBuffer.limit(byteBuffer.position() + chunk);
+                throttle(chunk, getWriteTimeout(), "write timed out");
+                relpClientSocket.write(byteBuffer);
+                byteBuffer.limit(limit);
+            }
+        }
+        finally {
+            byteBuffer.limit(limit);
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        if (reset) {
+            throw new IOException("read failed");
+        }
+        injectFaults(getReadTimeout(), "read timed out");
+        if (halfOpen) {
+            // nothing ever arrives, wait out the timeout
+            pause(Long.MAX_VALUE, getReadTimeout(), "read timed out");
+        }
+
+        int limit = byteBuffer.limit();
+        if (faults.maxReadBytes > 0 && byteBuffer.remaining() > faults.maxReadBytes) {
+            byteBuffer.limit(byteBuffer.position() + faults.maxReadBytes);
+        }
+        int readBytes;
+        try {
+            readBytes = relpClientSocket.read(byteBuffer);
+        }
+        finally {
+            byteBuffer.limit(limit);
+        }
+        throttle(readBytes, getReadTimeout(), "read timed out");
+        return readBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        relpClientSocket.close();
+        wakeup();
+    }
+
+    @Override
+    public void wakeup() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        relpClientSocket.wakeup();
+    }
+
+    private void injectFaults(int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        if (faults.resetTrigger.fire()) {
+            reset = true;
+            relpClientSocket.close();
+            throw new IOException("connection reset");
+        }
+        if (faults.stallTrigger.fire()) {
+            pause(faults.stall.toNanos(), timeout, timeoutMessage);
+        }
+        long delayNanos = faults.delay.toNanos();
+        long jitterNanos = faults.jitter.toNanos();
+        if (jitterNanos > 0) {
+            delayNanos = delayNanos + (long) (random.nextDouble() * jitterNanos);
+        }
+        pause(delayNanos, timeout, timeoutMessage);
+    }
+
+    private void throttle(int bytes, int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        if (faults.bytesPerSecond > 0 && bytes > 0) {
+            pause(TimeUnit.SECONDS.toNanos(bytes) / faults.bytesPerSecond, timeout, timeoutMessage);
+        }
+    }
+
+    /**
+     * Waits for the given time like a socket waiting for I/O would, giving up at the operation timeout or the deadline.
+     */
+    private void pause(long nanos, int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        if (nanos <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        synchronized (lock) {
+            while (true) {
+                if (getDeadline().isExpired()) {
+                    throw new TimeoutException("deadline exceeded");
+                }
+                long elapsed = System.nanoTime() - started;
+                if (elapsed >= nanos) {
+                    return;
+                }
+                if (timeout > 0 && elapsed >= TimeUnit.MILLISECONDS.toNanos(timeout)) {
+                    throw new TimeoutException(timeoutMessage);
+                }
+                long waitNanos = nanos - elapsed;
+                if (timeout > 0) {
+                    waitNanos = Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(timeout) - elapsed);
+                }
+                try {
+                    if (waitNanos == Long.MAX_VALUE) {
+                        lock.wait();
+                    }
+                    else {
+                        TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted");
+                }
+            }
+        }
+    }
+}
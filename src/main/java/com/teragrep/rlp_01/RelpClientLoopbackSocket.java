@@ -0,0 +1,159 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory socket whose peer is a {@link RelpLoopbackResponder} instead of a RELP server. Writes are handed to the
+ * responder and reads return its responses once they are due, so connections can be tested and measured without a
+ * kernel or network in between. The hostname and port given to open are ignored.
+ */
+public final class RelpClientLoopbackSocket extends RelpClientSocket {
+
+    private final RelpLoopbackResponder responder;
+    private final Object lock;
+    private boolean open;
+
+    private int readTimeout = 0;
+    private int writeTimeout = 0;
+    private int connectionTimeout = 0;
+
+    public RelpClientLoopbackSocket() {
+        this(new RelpLoopbackResponder());
+    }
+
+    public RelpClientLoopbackSocket(RelpLoopbackResponder responder) {
+        this.responder = responder;
+        this.lock = new Object();
+        this.open = false;
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public void setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    @Override
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        // nothing to keep alive
+    }
+
+    @Override
+    public void open(String hostname, int port) {
+        synchronized (lock) {
+            responder.reset();
+            open = true;
+        }
+    }
+
+    @Override
+    public void write(ByteBuffer byteBuffer) throws IOException {
+        synchronized (lock) {
+            if (!open) {
+                throw new IOException("write failed");
+            }
+            responder.receive(byteBuffer, System.nanoTime());
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            open = false;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        long readStarted = System.nanoTime();
+        synchronized (lock) {
+            while (true) {
+                if (!open) {
+                    throw new IOException("read failed");
+                }
+                if (getDeadline().isExpired()) {
+                    throw new TimeoutException("deadline exceeded");
+                }
+                long now = System.nanoTime();
+                int readBytes = responder.respond(byteBuffer, now);
+                if (readBytes > 0) {
+                    return readBytes;
+                }
+
+                long waitNanos = responder.hasPending() ? responder.nextDue() - now : Long.MAX_VALUE;
+                if (readTimeout > 0) {
+                    long remainingNanos = readStarted + TimeUnit.MILLISECONDS.toNanos(readTimeout) - now;
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException("read timed out");
+                    }
+                    waitNanos = Math.min(waitNanos, remainingNanos);
+                }
+                try {
+                    if (waitNanos == Long.MAX_VALUE) {
+                        lock.wait();
+                    }
+                    else {
+                        TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("read interrupted");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void wakeup() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plain socket that waits for readiness on a shared {@link RelpClientEventLoop} instead of a Selector of its own.
+ */
+class RelpClientPlainEventLoopSocket extends RelpClientSocket {
+
+    private int readTimeout = 0;
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public void setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    @Override
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        socketKeepAlive = on;
+    }
+
+    private int writeTimeout = 0;
+    private int connectionTimeout = 0;
+
+    private boolean socketKeepAlive = true;
+
+    private SocketChannel socketChannel;
+    private final RelpClientEventLoop eventLoop;
+    private volatile RelpClientEventLoop.Interest currentInterest = null;
+
+    RelpClientPlainEventLoopSocket(RelpClientEventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+    }
+
+    @Override
+    public void open(String hostname, int port) throws IOException, TimeoutException {
+        long openStarted = System.nanoTime();
+        this.socketChannel = SocketChannel.open();
+        // set KeepAlive
+        this.socketChannel.socket().setKeepAlive(socketKeepAlive);
+        // event loop requires non-blocking channels
+        this.socketChannel.configureBlocking(false);
+        // Async connect
+        boolean connected = this.socketChannel.connect(new InetSocketAddress(hostname, port));
+        while (!connected) {
+            awaitReady(SelectionKey.OP_CONNECT, this.connectionTimeout, "connection timed out");
+            connected = this.socketChannel.finishConnect();
+        }
+        setConnectReport(new ConnectReport(Duration.ofNanos(System.nanoTime() - openStarted), Duration.ZERO, "", ""));
+    }
+
+    @Override
+    public void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        while (byteBuffer.hasRemaining()) {
+            this.socketChannel.write(byteBuffer);
+            if (byteBuffer.hasRemaining()) {
+                awaitReady(SelectionKey.OP_WRITE, this.writeTimeout, "write timed out");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socketChannel.close();
+        // lets the event loop deregister the channel so that the socket is released
+        eventLoop.wakeup();
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        int readBytes = socketChannel.read(byteBuffer);
+        if (readBytes == 0) {
+            awaitReady(SelectionKey.OP_READ, this.readTimeout, "read timed out");
+            readBytes = socketChannel.read(byteBuffer);
+        }
+        if (readBytes == -1) {
+            throw new IOException("read failed");
+        }
+        return readBytes;
+    }
+
+    @Override
+    public void wakeup() {
+        RelpClientEventLoop.Interest interest = this.currentInterest;
+        if (interest != null) {
+            interest.wakeup();
+        }
+    }
+
+    private void awaitReady(int ops, int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        long timeoutAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long waitTimeout = timeout;
+        RelpClientEventLoop.Interest interest = eventLoop.register(socketChannel, ops);
+        this.currentInterest = interest;
+        try {
+            while (true) {
+                if (getDeadline().isExpired()) {
+                    throw new TimeoutException("deadline exceeded");
+                }
+                int readyOps;
+                try {
+                    readyOps = interest.await(waitTimeout);
+                }
+                catch (TimeoutException e) {
+                    throw new TimeoutException(timeoutMessage);
+                }
+                if (readyOps != 0) {
+                    return;
+                }
+                // woken up without the channel being ready
+                if (timeout > 0) {
+                    long remainingNanos = timeoutAt - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException(timeoutMessage);
+                    }
+                    waitTimeout = TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
+                }
+            }
+        }
+        catch (TimeoutException e) {
+            eventLoop.deregister(socketChannel);
+            throw e;
+        }
+        finally {
+            this.currentInterest = null;
+        }
+    }
+}
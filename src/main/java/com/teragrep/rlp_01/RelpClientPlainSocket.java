@@ -18,12 +18,15 @@ package com.teragrep.rlp_01;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 class RelpClientPlainSocket extends RelpClientSocket {
@@ -70,6 +73,8 @@ class RelpClientPlainSocket extends RelpClientSocket {
 
     private boolean socketKeepAlive = true;
 
+    private final SpinWait spinWait = new SpinWait();
+
     private SocketChannel socketChannel;
     private Selector poll;
 
@@ -78,7 +83,8 @@ class RelpClientPlainSocket extends RelpClientSocket {
     }
 
     @Override
-    void open(String hostname, int port) throws IOException, TimeoutException {
+    public void open(String hostname, int port) throws IOException, TimeoutException {
+        long openStarted = System.nanoTime();
         if (this.poll != null && this.poll.isOpen()) {
             // Invalidate all selection key instances in case they were open
             this.poll.close();
@@ -86,23 +92,16 @@ class RelpClientPlainSocket extends RelpClientSocket {
 
         this.poll = Selector.open();
 
-        this.socketChannel = SocketChannel.open();
-        // set KeepAlive
-        this.socketChannel.socket().setKeepAlive(socketKeepAlive);
+        this.socketChannel = openChannel();
         // Make sure our poll will only block
         this.socketChannel.configureBlocking(false);
         // Poll only for connect
         SelectionKey key = this.socketChannel.register(this.poll, SelectionKey.OP_CONNECT);
-        // Async connect
-        this.socketChannel.connect(new InetSocketAddress(hostname, port));
+        // Async connect, which local transports may complete right away
+        boolean notConnected = !this.socketChannel.connect(remoteAddress(hostname, port));
         // Poll for connect
-        boolean notConnected = true;
         while (notConnected) {
-            int nReady = this.poll.select(this.connectionTimeout);
-            // Woke up without anything to do
-            if (nReady == 0) {
-                throw new TimeoutException("connection timed out");
-            }
+            select(this.connectionTimeout, "connection timed out");
             // It would be possible to skip the whole iterator, but we want to make sure if something else than connect
             // fires then it will be discarded.
             Set<SelectionKey> polledEvents = this.poll.selectedKeys();
@@ -120,17 +119,26 @@ class RelpClientPlainSocket extends RelpClientSocket {
         }
         // No need to be longer interested in connect.
         key.interestOps(key.interestOps() & ~SelectionKey.OP_CONNECT);
+        setConnectReport(new ConnectReport(Duration.ofNanos(System.nanoTime() - openStarted), Duration.ZERO, "", ""));
+    }
+
+    SocketChannel openChannel() throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        // set KeepAlive
+        channel.socket().setKeepAlive(socketKeepAlive);
+        return channel;
+    }
+
+    SocketAddress remoteAddress(String hostname, int port) {
+        return new InetSocketAddress(hostname, port);
     }
 
     @Override
-    void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+    public void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
         SelectionKey key = this.socketChannel.register(this.poll, SelectionKey.OP_WRITE);
 
         while (byteBuffer.hasRemaining()) {
-            int nReady = poll.select(this.writeTimeout);
-            if (nReady == 0) {
-                throw new TimeoutException("write timed out");
-            }
+            select(this.writeTimeout, "write timed out");
             Set<SelectionKey> polledEvents = this.poll.selectedKeys();
             Iterator<SelectionKey> eventIter = polledEvents.iterator();
             while (eventIter.hasNext()) {
@@ -145,20 +153,17 @@ class RelpClientPlainSocket extends RelpClientSocket {
     }
 
     @Override
-    void close() throws IOException {
+    public void close() throws IOException {
         socketChannel.close();
         poll.close();
     }
 
     @Override
-    int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+    public int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
         int readBytes = -1;
 
         SelectionKey key = this.socketChannel.register(this.poll, SelectionKey.OP_READ);
-        int nReady = poll.select(this.readTimeout);
-        if (nReady == 0) {
-            throw new TimeoutException("read timed out");
-        }
+        select(this.readTimeout, "read timed out");
         Set<SelectionKey> polledEvents = this.poll.selectedKeys();
         Iterator<SelectionKey> eventIter = polledEvents.iterator();
         while (eventIter.hasNext()) {
@@ -174,4 +179,63 @@ class RelpClientPlainSocket extends RelpClientSocket {
         key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
         return readBytes;
     }
+
+    @Override
+    public void wakeup() {
+        Selector currentSelector = this.poll;
+        if (currentSelector != null) {
+            currentSelector.wakeup();
+        }
+    }
+
+    /**
+     * Selects until a key is ready or the timeout elapses, throws if the deadline has expired. Wakeups that are not
+     * caused by the deadline do not end the wait. With busy polling enabled, spins first.
+     */
+    private void select(int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        if (getBusyPoll() > 0 && spin()) {
+            return;
+        }
+        long timeoutAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long selectTimeout = timeout;
+        while (true) {
+            int nReady = poll.select(selectTimeout);
+            if (getDeadline().isExpired()) {
+                throw new TimeoutException("deadline exceeded");
+            }
+            if (nReady > 0) {
+                return;
+            }
+            if (timeout > 0) {
+                long remainingNanos = timeoutAt - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    // Woke up without anything to do
+                    throw new TimeoutException(timeoutMessage);
+                }
+                // round up so that the select never degenerates into select(0)
+                selectTimeout = TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
+            }
+        }
+    }
+
+    /**
+     * Polls the selector without blocking until a key is ready or the busy poll time is spent.
+     *
+     * @return true if a key is ready
+     */
+    private boolean spin() throws IOException, TimeoutException {
+        long spinUntil = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(getBusyPoll());
+        do {
+            int nReady = poll.selectNow();
+            if (getDeadline().isExpired()) {
+                throw new TimeoutException("deadline exceeded");
+            }
+            if (nReady > 0) {
+                return true;
+            }
+            spinWait.hint();
+        }
+        while (System.nanoTime() - spinUntil < 0);
+        return false;
+    }
 }
@@ -18,10 +18,38 @@ package com.teragrep.rlp_01;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.concurrent.TimeoutException;
 
 public abstract class RelpClientSocket {
 
+    /**
+     * Prefix of a hostname that is the path of a Unix domain socket, see {@link #unixSocket()}.
+     */
+    public static final String UNIX_SOCKET_PREFIX = "unix:";
+
+    private volatile Deadline deadline = new NoDeadline();
+    private int busyPoll = 0;
+    private volatile ConnectReport connectReport = new ConnectReport(Duration.ZERO, Duration.ZERO, "", "");
+
+    /**
+     * Socket for a RELP server listening on a Unix domain socket on the same host, such as an rsyslog sidecar, which
+     * saves the TCP loopback stack. The hostname given to open is the path of the socket, optionally prefixed with
+     * {@link #UNIX_SOCKET_PREFIX}, and the port is ignored.
+     *
+     * @return socket that fails to open unless {@link #isUnixSocketSupported()}
+     */
+    public static RelpClientSocket unixSocket() {
+        return new RelpClientUnixSocket();
+    }
+
+    /**
+     * @return true if the running Java supports Unix domain socket channels, which requires Java 16 or newer
+     */
+    public static boolean isUnixSocketSupported() {
+        return RelpClientUnixSocket.isSupported();
+    }
+
     public abstract int getReadTimeout();
 
     public abstract void setReadTimeout(int readTimeout);
@@ -36,11 +64,82 @@ public abstract class RelpClientSocket {
 
     public abstract void setKeepAlive(boolean on);
 
-    abstract void open(String hostname, int port) throws IOException, TimeoutException;
+    public int getBusyPoll() {
+        return busyPoll;
+    }
+
+    /**
+     * Enables busy polling: a socket waiting for I/O spins with non-blocking selects for the given time before it
+     * blocks in select. Trades CPU time for lower latency, only sockets that own their Selector busy poll.
+     *
+     * @param busyPoll microseconds to spin before blocking, 0 disables busy polling
+     */
+    public void setBusyPoll(int busyPoll) {
+        this.busyPoll = busyPoll;
+    }
+
+    /**
+     * Connects to the peer. Implementations complete the connect, and any handshake of the transport, before returning.
+     *
+     * @param hostname host to connect to, or the address of the peer in the form the transport understands
+     * @param port     port to connect to, ignored by transports that do not use ports
+     */
+    public abstract void open(String hostname, int port) throws IOException, TimeoutException;
+
+    /**
+     * Writes all the remaining bytes of the buffer.
+     */
+    public abstract void write(ByteBuffer byteBuffer) throws IOException, TimeoutException;
+
+    public abstract void close() throws IOException;
+
+    /**
+     * Reads what is available into the buffer, waiting for at least one byte.
+     *
+     * @return amount of bytes read
+     * @throws IOException if the peer has closed the connection
+     */
+    public abstract int read(ByteBuffer byteBuffer) throws IOException, TimeoutException;
+
+    /**
+     * Wakes up a thread waiting on this socket so that it can observe an expired deadline.
+     */
+    public abstract void wakeup();
+
+    /**
+     * Frames are collected into a single write up to this amount of bytes. Sockets that add per write overhead, such as
+     * TLS records, limit it to the size that fits in one unit of that overhead.
+     *
+     * @return bytes to coalesce into a single write
+     */
+    protected int getCoalescingLimit() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return deadline of the current commit, implementations waiting on I/O throw {@link TimeoutException} once it has
+     *         expired
+     */
+    protected Deadline getDeadline() {
+        return deadline;
+    }
 
-    abstract void write(ByteBuffer byteBuffer) throws IOException, TimeoutException;
+    /**
+     * Sets the deadline for the I/O operations that follow. Operations waiting on the socket throw
+     * {@link TimeoutException} once the deadline expires and {@link #wakeup()} is called.
+     */
+    void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
 
-    abstract void close() throws IOException;
+    /**
+     * @return timings and negotiated parameters of the latest connect
+     */
+    ConnectReport getConnectReport() {
+        return connectReport;
+    }
 
-    abstract int read(ByteBuffer byteBuffer) throws IOException, TimeoutException;
+    protected void setConnectReport(ConnectReport connectReport) {
+        this.connectReport = connectReport;
+    }
 }
@@ -0,0 +1,280 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import tlschannel.BufferAllocator;
+import tlschannel.ClientTlsChannel;
+import tlschannel.NeedsReadException;
+import tlschannel.NeedsWriteException;
+import tlschannel.TlsChannel;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+
+/**
+ * TLS socket that waits for readiness on a shared {@link RelpClientEventLoop} instead of a Selector of its own.
+ */
+class RelpClientTlsEventLoopSocket extends RelpClientSocket {
+
+    private int readTimeout = 0;
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public void setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    @Override
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    protected int getCoalescingLimit() {
+        // maximum plaintext of a single TLS record
+        return 16384;
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        socketKeepAlive = on;
+    }
+
+    private int writeTimeout = 0;
+    private int connectionTimeout = 0;
+
+    private boolean socketKeepAlive = true;
+
+    private SocketChannel socketChannel;
+    private TlsChannel tlsChannel = null;
+
+    private final RelpClientEventLoop eventLoop;
+    private volatile RelpClientEventLoop.Interest currentInterest = null;
+    private final Function<InetSocketAddress, SSLEngine> sslEngineFunction;
+
+    RelpClientTlsEventLoopSocket(
+            RelpClientEventLoop eventLoop,
+            Function<InetSocketAddress, SSLEngine> sslEngineFunction
+    ) {
+        this.eventLoop = eventLoop;
+        this.sslEngineFunction = sslEngineFunction;
+    }
+
+    @Override
+    public void open(String hostname, int port) throws IOException, TimeoutException {
+        long openStarted = System.nanoTime();
+        this.socketChannel = SocketChannel.open();
+        // set KeepAlive
+        this.socketChannel.socket().setKeepAlive(socketKeepAlive);
+        // event loop requires non-blocking channels
+        this.socketChannel.configureBlocking(false);
+        // Async connect
+        boolean connected = this.socketChannel.connect(new InetSocketAddress(hostname, port));
+
+        // peer host and port allow the engine to resume a cached session
+        SSLEngine sslEngine = sslEngineFunction.apply(InetSocketAddress.createUnresolved(hostname, port));
+        // force client mode
+        sslEngine.setUseClientMode(true);
+
+        // buffers come from the shared pool and are given back when the channel is closed
+        BufferAllocator bufferAllocator = new PooledBufferAllocator(DirectBufferPool.shared());
+        tlsChannel = ClientTlsChannel
+                .newBuilder(socketChannel, sslEngine)
+                .withPlainBufferAllocator(bufferAllocator)
+                .withEncryptedBufferAllocator(bufferAllocator)
+                .withReleaseBuffers(true)
+                .build();
+
+        while (!connected) {
+            awaitReady(
+                    SelectionKey.OP_CONNECT, remainingConnectionTimeout(openStarted, "connection timed out"), "connection timed out"
+            );
+            connected = this.socketChannel.finishConnect();
+        }
+        long connectedAt = System.nanoTime();
+
+        // handshake now instead of on the first write, so that it is bounded by the connection timeout
+        boolean notHandshaken = true;
+        while (notHandshaken) {
+            try {
+                tlsChannel.handshake();
+                notHandshaken = false;
+            }
+            catch (NeedsReadException e) {
+                awaitReady(
+                        SelectionKey.OP_READ, remainingConnectionTimeout(openStarted, "handshake timed out"), "handshake timed out"
+                );
+            }
+            catch (NeedsWriteException e) {
+                awaitReady(
+                        SelectionKey.OP_WRITE, remainingConnectionTimeout(openStarted, "handshake timed out"), "handshake timed out"
+                );
+            }
+        }
+        long handshaken = System.nanoTime();
+
+        SSLSession sslSession = sslEngine.getSession();
+        setConnectReport(
+                new ConnectReport(Duration.ofNanos(connectedAt - openStarted), Duration.ofNanos(handshaken - connectedAt), sslSession.getProtocol(), sslSession.getCipherSuite())
+        );
+    }
+
+    /**
+     * @return milliseconds left of the connection timeout counted from the given start, 0 if there is no timeout
+     */
+    private int remainingConnectionTimeout(long openStarted, String timeoutMessage) throws TimeoutException {
+        if (this.connectionTimeout == 0) {
+            return 0;
+        }
+        long remainingNanos = openStarted + TimeUnit.MILLISECONDS.toNanos(this.connectionTimeout) - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new TimeoutException(timeoutMessage);
+        }
+        return (int) TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
+    }
+
+    @Override
+    public void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        while (byteBuffer.hasRemaining()) {
+            try {
+                this.tlsChannel.write(byteBuffer);
+            }
+            catch (NeedsReadException e) {
+                awaitReady(SelectionKey.OP_READ, this.writeTimeout, "write timed out");
+            }
+            catch (NeedsWriteException e) {
+                awaitReady(SelectionKey.OP_WRITE, this.writeTimeout, "write timed out");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        tlsChannel.close();
+        // lets the event loop deregister the channel so that the socket is released
+        eventLoop.wakeup();
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+        int readBytes;
+        int interestOps = SelectionKey.OP_READ;
+        try {
+            // try reading data if it is available from the tlsChannel
+            readBytes = tlsChannel.read(byteBuffer);
+        }
+        catch (NeedsReadException e) {
+            readBytes = 0;
+        }
+        catch (NeedsWriteException e) {
+            readBytes = 0;
+            interestOps = SelectionKey.OP_WRITE;
+        }
+
+        if (readBytes == 0) {
+            awaitReady(interestOps, this.readTimeout, "Read timed out");
+            try {
+                readBytes = tlsChannel.read(byteBuffer);
+            }
+            catch (NeedsReadException | NeedsWriteException e) {
+                // not a complete record yet, caller will read again
+                readBytes = 0;
+            }
+        }
+
+        if (readBytes == -1) {
+            throw new IOException("Read failed, end-of-stream reached");
+        }
+        return readBytes;
+    }
+
+    @Override
+    public void wakeup() {
+        RelpClientEventLoop.Interest interest = this.currentInterest;
+        if (interest != null) {
+            interest.wakeup();
+        }
+    }
+
+    private void awaitReady(int ops, int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        long timeoutAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long waitTimeout = timeout;
+        RelpClientEventLoop.Interest interest = eventLoop.register(socketChannel, ops);
+        this.currentInterest = interest;
+        try {
+            while (true) {
+                if (getDeadline().isExpired()) {
+                    throw new TimeoutException("deadline exceeded");
+                }
+                int readyOps;
+                try {
+                    readyOps = interest.await(waitTimeout);
+                }
+                catch (TimeoutException e) {
+                    throw new TimeoutException(timeoutMessage);
+                }
+                if (readyOps != 0) {
+                    return;
+                }
+                // woken up without the channel being ready
+                if (timeout > 0) {
+                    long remainingNanos = timeoutAt - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException(timeoutMessage);
+                    }
+                    waitTimeout = TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
+                }
+            }
+        }
+        catch (TimeoutException e) {
+            eventLoop.deregister(socketChannel);
+            throw e;
+        }
+        finally {
+            this.currentInterest = null;
+        }
+    }
+}
@@ -22,17 +22,21 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.function.Supplier;
+import java.util.function.Function;
 
+import tlschannel.BufferAllocator;
 import tlschannel.ClientTlsChannel;
 import tlschannel.NeedsReadException;
 import tlschannel.NeedsWriteException;
 import tlschannel.TlsChannel;
 
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
 
 public class RelpClientTlsSocket extends RelpClientSocket {
 
@@ -68,6 +72,12 @@ public class RelpClientTlsSocket extends RelpClientSocket {
         this.connectionTimeout = connectionTimeout;
     }
 
+    @Override
+    protected int getCoalescingLimit() {
+        // maximum plaintext of a single TLS record
+        return 16384;
+    }
+
     @Override
     public void setKeepAlive(boolean on) {
         socketKeepAlive = on;
@@ -78,19 +88,28 @@ public class RelpClientTlsSocket extends RelpClientSocket {
 
     private boolean socketKeepAlive = true;
 
+    private final SpinWait spinWait = new SpinWait();
+
     private SocketChannel socketChannel;
     private Selector selector;
 
     private TlsChannel tlsChannel = null;
 
-    private final Supplier<SSLEngine> sslEngineSupplier;
+    private final Function<InetSocketAddress, SSLEngine> sslEngineFunction;
+    private final DirectBufferPool bufferPool;
+
+    RelpClientTlsSocket(Function<InetSocketAddress, SSLEngine> sslEngineFunction) {
+        this(sslEngineFunction, DirectBufferPool.shared());
+    }
 
-    RelpClientTlsSocket(Supplier<SSLEngine> sslEngineSupplier) {
-        this.sslEngineSupplier = sslEngineSupplier;
+    RelpClientTlsSocket(Function<InetSocketAddress, SSLEngine> sslEngineFunction, DirectBufferPool bufferPool) {
+        this.sslEngineFunction = sslEngineFunction;
+        this.bufferPool = bufferPool;
     }
 
     @Override
-    void open(String hostname, int port) throws IOException, TimeoutException {
+    public void open(String hostname, int port) throws IOException, TimeoutException {
+        long openStarted = System.nanoTime();
         if (this.selector != null && this.selector.isOpen()) {
             // Invalidate all selection key instances in case they were open
             this.selector.close();
@@ -108,22 +127,25 @@ public class RelpClientTlsSocket extends RelpClientSocket {
         // Async connect
         this.socketChannel.connect(new InetSocketAddress(hostname, port));
 
-        SSLEngine sslEngine = sslEngineSupplier.get();
+        // peer host and port allow the engine to resume a cached session
+        SSLEngine sslEngine = sslEngineFunction.apply(InetSocketAddress.createUnresolved(hostname, port));
         // force client mode
         sslEngine.setUseClientMode(true);
 
-        ClientTlsChannel.Builder builder = ClientTlsChannel.newBuilder(socketChannel, sslEngine);
+        // buffers come from the pool and are given back when the channel is closed
+        BufferAllocator bufferAllocator = new PooledBufferAllocator(bufferPool);
+        ClientTlsChannel.Builder builder = ClientTlsChannel
+                .newBuilder(socketChannel, sslEngine)
+                .withPlainBufferAllocator(bufferAllocator)
+                .withEncryptedBufferAllocator(bufferAllocator)
+                .withReleaseBuffers(true);
 
         tlsChannel = builder.build();
 
         // Poll for connect
         boolean notConnected = true;
         while (notConnected) {
-            int nReady = this.selector.select(this.connectionTimeout);
-            // Woke up without anything to do
-            if (nReady == 0) {
-                throw new TimeoutException("connection timed out");
-            }
+            select(remainingConnectionTimeout(openStarted, "connection timed out"), "connection timed out");
             // It would be possible to skip the whole iterator, but we want to make sure if something else than connect
             // fires then it will be discarded.
             Set<SelectionKey> polledEvents = this.selector.selectedKeys();
@@ -141,16 +163,58 @@ public class RelpClientTlsSocket extends RelpClientSocket {
         }
         // No need to be longer interested in connect.
         key.interestOps(key.interestOps() & ~SelectionKey.OP_CONNECT);
+        long connected = System.nanoTime();
+
+        // handshake now instead of on the first write, so that it is bounded by the connection timeout
+        handshake(key, openStarted);
+        long handshaken = System.nanoTime();
+
+        SSLSession sslSession = sslEngine.getSession();
+        setConnectReport(
+                new ConnectReport(Duration.ofNanos(connected - openStarted), Duration.ofNanos(handshaken - connected), sslSession.getProtocol(), sslSession.getCipherSuite())
+        );
+    }
+
+    private void handshake(SelectionKey key, long openStarted) throws IOException, TimeoutException {
+        boolean notHandshaken = true;
+        while (notHandshaken) {
+            try {
+                tlsChannel.handshake();
+                notHandshaken = false;
+            }
+            catch (NeedsReadException e) {
+                key.interestOps(SelectionKey.OP_READ); // overwrites previous value
+                select(remainingConnectionTimeout(openStarted, "handshake timed out"), "handshake timed out");
+                selector.selectedKeys().clear();
+            }
+            catch (NeedsWriteException e) {
+                key.interestOps(SelectionKey.OP_WRITE); // overwrites previous value
+                select(remainingConnectionTimeout(openStarted, "handshake timed out"), "handshake timed out");
+                selector.selectedKeys().clear();
+            }
+        }
+        key.interestOps(0);
+    }
+
+    /**
+     * @return milliseconds left of the connection timeout counted from the given start, 0 if there is no timeout
+     */
+    private int remainingConnectionTimeout(long openStarted, String timeoutMessage) throws TimeoutException {
+        if (this.connectionTimeout == 0) {
+            return 0;
+        }
+        long remainingNanos = openStarted + TimeUnit.MILLISECONDS.toNanos(this.connectionTimeout) - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new TimeoutException(timeoutMessage);
+        }
+        return (int) TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
     }
 
     @Override
-    void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+    public void write(ByteBuffer byteBuffer) throws IOException, TimeoutException {
         SelectionKey key = this.socketChannel.register(this.selector, SelectionKey.OP_WRITE);
         while (byteBuffer.hasRemaining()) {
-            int nReady = selector.select(this.writeTimeout);
-            if (nReady == 0) {
-                throw new TimeoutException("write timed out");
-            }
+            select(this.writeTimeout, "write timed out");
             Set<SelectionKey> polledEvents = this.selector.selectedKeys();
             Iterator<SelectionKey> eventIter = polledEvents.iterator();
             while (eventIter.hasNext()) {
@@ -173,13 +237,13 @@ public class RelpClientTlsSocket extends RelpClientSocket {
     }
 
     @Override
-    void close() throws IOException {
+    public void close() throws IOException {
         tlsChannel.close();
         selector.close();
     }
 
     @Override
-    int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
+    public int read(ByteBuffer byteBuffer) throws IOException, TimeoutException {
         int readBytes;
         try {
             // try reading data if it is available from the tlsChannel
@@ -196,10 +260,7 @@ public class RelpClientTlsSocket extends RelpClientSocket {
 
         if (readBytes == 0) {
             SelectionKey key = this.socketChannel.register(this.selector, SelectionKey.OP_READ);
-            int nReady = selector.select(this.readTimeout);
-            if (nReady == 0) {
-                throw new TimeoutException("Read timed out");
-            }
+            select(this.readTimeout, "Read timed out");
             Set<SelectionKey> polledEvents = this.selector.selectedKeys();
             Iterator<SelectionKey> eventIter = polledEvents.iterator();
             while (eventIter.hasNext()) {
@@ -224,4 +285,63 @@ public class RelpClientTlsSocket extends RelpClientSocket {
         }
         return readBytes;
     }
+
+    @Override
+    public void wakeup() {
+        Selector currentSelector = this.selector;
+        if (currentSelector != null) {
+            currentSelector.wakeup();
+        }
+    }
+
+    /**
+     * Selects until a key is ready or the timeout elapses, throws if the deadline has expired. Wakeups that are not
+     * caused by the deadline do not end the wait. With busy polling enabled, spins first.
+     */
+    private void select(int timeout, String timeoutMessage) throws IOException, TimeoutException {
+        if (getBusyPoll() > 0 && spin()) {
+            return;
+        }
+        long timeoutAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long selectTimeout = timeout;
+        while (true) {
+            int nReady = selector.select(selectTimeout);
+            if (getDeadline().isExpired()) {
+                throw new TimeoutException("deadline exceeded");
+            }
+            if (nReady > 0) {
+                return;
+            }
+            if (timeout > 0) {
+                long remainingNanos = timeoutAt - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    // Woke up without anything to do
+                    throw new TimeoutException(timeoutMessage);
+                }
+                // round up so that the select never degenerates into select(0)
+                selectTimeout = TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999L);
+            }
+        }
+    }
+
+    /**
+     * Polls the selector without blocking until a key is ready or the busy poll time is spent.
+     *
+     * @return true if a key is ready
+     */
+    private boolean spin() throws IOException, TimeoutException {
+        long spinUntil = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(getBusyPoll());
+        do {
+            int nReady = selector.selectNow();
+            if (getDeadline().isExpired()) {
+                throw new TimeoutException("deadline exceeded");
+            }
+            if (nReady > 0) {
+                return true;
+            }
+            spinWait.hint();
+        }
+        while (System.nanoTime() - spinUntil < 0);
+        return false;
+    }
 }
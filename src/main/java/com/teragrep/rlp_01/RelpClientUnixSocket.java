@@ -0,0 +1,102 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Unix domain socket, created with {@link RelpClientSocket#unixSocket()}. Requires Java 16 or newer at runtime, the
+ * channel and address are looked up reflectively so that the library still runs on Java 8.
+ */
+final class RelpClientUnixSocket extends RelpClientPlainSocket {
+
+    static final String PREFIX = UNIX_SOCKET_PREFIX;
+
+    private static final MethodHandle OPEN_CHANNEL;
+    private static final MethodHandle ADDRESS_OF;
+
+    static {
+        MethodHandle openChannel;
+        MethodHandle addressOf;
+        try {
+            ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+            openChannel = MethodHandles
+                    .publicLookup()
+                    .findStatic(
+                            SocketChannel.class, "open", MethodType.methodType(SocketChannel.class, ProtocolFamily.class)
+                    )
+                    .bindTo(unix);
+            Class<?> addressClass = Class.forName("java.net.UnixDomainSocketAddress");
+            addressOf = MethodHandles
+                    .publicLookup()
+                    .findStatic(addressClass, "of", MethodType.methodType(addressClass, String.class))
+                    .asType(MethodType.methodType(SocketAddress.class, String.class));
+        }
+        catch (IllegalArgumentException | ReflectiveOperationException e) {
+            // not available before Java 16
+            openChannel = null;
+            addressOf = null;
+        }
+        OPEN_CHANNEL = openChannel;
+        ADDRESS_OF = addressOf;
+    }
+
+    static boolean isSupported() {
+        return OPEN_CHANNEL != null;
+    }
+
+    RelpClientUnixSocket() {
+        super();
+    }
+
+    @Override
+    SocketChannel openChannel() throws IOException {
+        if (!isSupported()) {
+            throw new IOException("Unix domain sockets require Java 16 or newer");
+        }
+        try {
+            return (SocketChannel) OPEN_CHANNEL.invokeExact();
+        }
+        catch (IOException | RuntimeException e) {
+            throw e;
+        }
+        catch (Throwable throwable) {
+            throw new IOException("Unable to open Unix domain socket channel", throwable);
+        }
+    }
+
+    @Override
+    SocketAddress remoteAddress(String hostname, int port) {
+        String path = hostname.startsWith(PREFIX) ? hostname.substring(PREFIX.length()) : hostname;
+        try {
+            return (SocketAddress) ADDRESS_OF.invokeExact(path);
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Throwable throwable) {
+            throw new IllegalArgumentException("Invalid Unix domain socket path <" + path + ">", throwable);
+        }
+    }
+}
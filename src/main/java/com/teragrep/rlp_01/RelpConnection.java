@@ -18,9 +18,20 @@ package com.teragrep.rlp_01;
 
 import javax.net.ssl.SSLEngine;
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -31,11 +42,18 @@ public class RelpConnection implements RelpSender {
 
     private int rxBufferSize;
     private int txBufferSize;
+    // taken from the pool while in use, null otherwise
     private ByteBuffer preAllocatedTXBuffer;
     private ByteBuffer preAllocatedRXBuffer;
+    private final DirectBufferPool bufferPool;
     private final RelpClientSocket relpClientSocket;
     private final RelpParser parser = new RelpParser();
 
+    /**
+     * Failed payloads kept in the {@link RelpStreamReport} of a stream at most.
+     */
+    public static final int MAX_FAILED_SAMPLE = 1024;
+
     private final static byte[] OFFER;
 
     static {
@@ -75,6 +93,40 @@ public class RelpConnection implements RelpSender {
         relpClientSocket.setKeepAlive(on);
     }
 
+    /**
+     * @return transport connect time, TLS handshake time and negotiated TLS parameters of the latest connect
+     */
+    public ConnectReport getConnectReport() {
+        return relpClientSocket.getConnectReport();
+    }
+
+    public int getBusyPoll() {
+        return relpClientSocket.getBusyPoll();
+    }
+
+    /**
+     * @param busyPoll microseconds to spin on the socket before blocking, 0 disables busy polling
+     */
+    public void setBusyPoll(int busyPoll) {
+        relpClientSocket.setBusyPoll(busyPoll);
+    }
+
+    public int getCommitTimeout() {
+        return this.commitTimeout;
+    }
+
+    /**
+     * Bounds the total duration of a commit, regardless of how the individual reads and writes progress. The deadline
+     * is tracked by the given timer, which may be shared by any amount of connections.
+     *
+     * @param timer         timer tracking the deadlines
+     * @param commitTimeout milliseconds a commit may take, 0 disables the deadline
+     */
+    public void setCommitTimeout(HashedWheelTimer timer, int commitTimeout) {
+        this.timer = timer;
+        this.commitTimeout = commitTimeout;
+    }
+
     public int getRxBufferSize() {
         return this.rxBufferSize;
     }
@@ -83,7 +135,6 @@ public class RelpConnection implements RelpSender {
         if (this.state != RelpConnectionState.CLOSED) {
             throw new IllegalStateException("Connection must be closed to " + "change rxBufferSize");
         }
-        this.preAllocatedRXBuffer = ByteBuffer.allocateDirect(size);
         this.rxBufferSize = size;
     }
 
@@ -95,12 +146,14 @@ public class RelpConnection implements RelpSender {
         if (this.state != RelpConnectionState.CLOSED) {
             throw new IllegalStateException("Connection must be closed to " + "change txBufferSize");
         }
-        this.preAllocatedTXBuffer = ByteBuffer.allocateDirect(size);
         this.txBufferSize = size;
     }
 
     private RelpConnectionState state;
 
+    private HashedWheelTimer timer;
+    private int commitTimeout;
+
     /**
      * The TXNR generator object.
      */
@@ -110,21 +163,72 @@ public class RelpConnection implements RelpSender {
     private RelpWindow window;
 
     public RelpConnection() {
-        this.state = RelpConnectionState.CLOSED;
+        this(new RelpClientPlainSocket());
+    }
 
-        this.setRxBufferSize(512);
-        this.setTxBufferSize(262144);
+    public RelpConnection(Supplier<SSLEngine> sslEngineSupplier) {
+        this(new RelpClientTlsSocket(address -> sslEngineSupplier.get()));
+    }
 
-        this.relpClientSocket = new RelpClientPlainSocket();
+    /**
+     * TLS connection that creates its SSLEngine for the peer it connects to, which lets the SSLContext resume cached
+     * sessions, for example with {@code address -> sslContext.createSSLEngine(address.getHostString(),
+     * address.getPort())}.
+     *
+     * @param sslEngineFunction creates the SSLEngine for an unresolved peer address on each connect
+     */
+    public RelpConnection(Function<InetSocketAddress, SSLEngine> sslEngineFunction) {
+        this(new RelpClientTlsSocket(sslEngineFunction));
     }
 
-    public RelpConnection(Supplier<SSLEngine> sslEngineSupplier) {
+    /**
+     * Connection that waits for its socket on a shared event loop instead of a Selector of its own.
+     *
+     * @param eventLoop event loop shared with other connections
+     */
+    public RelpConnection(RelpClientEventLoop eventLoop) {
+        this(new RelpClientPlainEventLoopSocket(eventLoop));
+    }
+
+    /**
+     * TLS connection that waits for its socket on a shared event loop instead of a Selector of its own.
+     *
+     * @param eventLoop         event loop shared with other connections
+     * @param sslEngineSupplier supplier for the SSLEngine of each connect
+     */
+    public RelpConnection(RelpClientEventLoop eventLoop, Supplier<SSLEngine> sslEngineSupplier) {
+        this(new RelpClientTlsEventLoopSocket(eventLoop, address -> sslEngineSupplier.get()));
+    }
+
+    /**
+     * TLS connection that waits for its socket on a shared event loop and creates its SSLEngine for the peer it
+     * connects to.
+     *
+     * @param eventLoop         event loop shared with other connections
+     * @param sslEngineFunction creates the SSLEngine for an unresolved peer address on each connect
+     */
+    public RelpConnection(RelpClientEventLoop eventLoop, Function<InetSocketAddress, SSLEngine> sslEngineFunction) {
+        this(new RelpClientTlsEventLoopSocket(eventLoop, sslEngineFunction));
+    }
+
+    public RelpConnection(RelpClientSocket relpClientSocket) {
+        this(relpClientSocket, DirectBufferPool.shared());
+    }
+
+    /**
+     * The RX buffer is taken from the pool while the connection is open and the TX buffer while a batch is being sent,
+     * so idle and closed connections hold no buffers.
+     */
+    RelpConnection(RelpClientSocket relpClientSocket, DirectBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
         this.state = RelpConnectionState.CLOSED;
+        this.timer = null;
+        this.commitTimeout = 0;
 
         this.setRxBufferSize(512);
         this.setTxBufferSize(262144);
 
-        this.relpClientSocket = new RelpClientTlsSocket(sslEngineSupplier);
+        this.relpClientSocket = relpClientSocket;
     }
 
     /**
@@ -141,6 +245,9 @@ public class RelpConnection implements RelpSender {
         this.txID = new TxID();
         this.window = new RelpWindow();
 
+        releaseBuffers();
+        this.preAllocatedRXBuffer = bufferPool.acquire(this.rxBufferSize);
+
         this.relpClientSocket.open(hostname, port);
 
         // send open session message
@@ -163,8 +270,18 @@ public class RelpConnection implements RelpSender {
             ; // don't care
         }
         this.state = RelpConnectionState.CLOSED;
-        this.preAllocatedTXBuffer.clear();
-        this.preAllocatedRXBuffer.clear();
+        releaseBuffers();
+    }
+
+    private void releaseBuffers() {
+        if (this.preAllocatedTXBuffer != null) {
+            bufferPool.release(this.preAllocatedTXBuffer);
+            this.preAllocatedTXBuffer = null;
+        }
+        if (this.preAllocatedRXBuffer != null) {
+            bufferPool.release(this.preAllocatedRXBuffer);
+            this.preAllocatedRXBuffer = null;
+        }
     }
 
     /**
@@ -187,6 +304,7 @@ public class RelpConnection implements RelpSender {
         if (closeSuccess) {
             relpClientSocket.close();
             this.state = RelpConnectionState.CLOSED;
+            releaseBuffers();
         }
         return closeSuccess;
     }
@@ -196,10 +314,207 @@ public class RelpConnection implements RelpSender {
             throw new IllegalStateException("Session is not in open state, can not commit.");
         }
         this.state = RelpConnectionState.COMMIT;
-        this.sendBatch(relpBatch);
+        Deadline commitDeadline;
+        if (timer != null && commitTimeout > 0) {
+            commitDeadline = timer.schedule(relpClientSocket::wakeup, commitTimeout);
+        }
+        else {
+            commitDeadline = new NoDeadline();
+        }
+        relpClientSocket.setDeadline(commitDeadline);
+        try {
+            this.sendBatch(relpBatch);
+        }
+        finally {
+            commitDeadline.cancel();
+            relpClientSocket.setDeadline(new NoDeadline());
+        }
         this.state = RelpConnectionState.OPEN;
     }
 
+    /**
+     * Streams payloads pulled lazily from the supplier, see {@link #commitStream(Iterator, int)}.
+     *
+     * @param payloads    supplies the payloads, null ends the stream
+     * @param maxInFlight payloads sent without an acknowledgement at most
+     */
+    public RelpStreamReport commitStream(Supplier<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        return commitStream(new SupplierIterator(payloads), maxInFlight);
+    }
+
+    /**
+     * Streams the payloads of the iterator, see {@link #commitStream(Iterator, int, Consumer)}. The report holds a
+     * sample of the failed payloads, at most {@link #MAX_FAILED_SAMPLE} of them.
+     *
+     * @param payloads    payloads to send
+     * @param maxInFlight payloads sent without an acknowledgement at most
+     * @return report of the stream
+     * @throws RelpStreamException if the connection fails, with the payloads in flight counted as failed
+     */
+    public RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        final List<byte[]> sample = new ArrayList<>();
+        return commitStream(payloads, maxInFlight, (payload, response) -> {
+        }, payload -> {
+            if (sample.size() < MAX_FAILED_SAMPLE) {
+                sample.add(payload);
+            }
+        }, sample);
+    }
+
+    /**
+     * Sends the payloads of the iterator as syslog frames, pulling them lazily and keeping at most maxInFlight of them
+     * without an acknowledgement. Acknowledged payloads are released right away, so memory stays constant regardless of
+     * how many payloads the iterator has. Payloads the server rejects, and those in flight if the connection fails, are
+     * handed to the failure callback on the calling thread. The commit timeout does not apply to streams, the read and
+     * write timeouts do.
+     *
+     * @param payloads    payloads to send
+     * @param maxInFlight payloads sent without an acknowledgement at most
+     * @param failures    receives each failed payload, to be sent again by the caller
+     * @return report of the stream, without a sample of the failed payloads
+     * @throws RelpStreamException if the connection fails, with the payloads in flight counted as failed
+     */
+    public RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight, Consumer<byte[]> failures)
+            throws IOException, IllegalStateException {
+        return commitStream(payloads, maxInFlight, (payload, response) -> {
+        }, failures, Collections.emptyList());
+    }
+
+    /**
+     * Streams the payloads of the iterator like {@link #commitStream(Iterator, int, Consumer)}, handing each payload
+     * acknowledged with 200 to the acknowledgement callback as soon as its response is read. The iterator is asked for
+     * more payloads after each read of acknowledgements, so payloads that become available while others are in flight
+     * are written without waiting for the stream to drain.
+     *
+     * @param payloads         payloads to send
+     * @param maxInFlight      payloads sent without an acknowledgement at most
+     * @param acknowledgements receives each acknowledged payload with its response
+     * @param failures         receives each failed payload, to be sent again by the caller
+     * @return report of the stream, without a sample of the failed payloads
+     * @throws RelpStreamException if the connection fails, with the payloads in flight counted as failed
+     */
+    public RelpStreamReport commitStream(
+            Iterator<byte[]> payloads,
+            int maxInFlight,
+            BiConsumer<byte[], RelpFrameRX> acknowledgements,
+            Consumer<byte[]> failures
+    ) throws IOException, IllegalStateException {
+        return commitStream(payloads, maxInFlight, acknowledgements, failures, Collections.emptyList());
+    }
+
+    private RelpStreamReport commitStream(
+            Iterator<byte[]> payloads,
+            int maxInFlight,
+            BiConsumer<byte[], RelpFrameRX> acknowledgements,
+            Consumer<byte[]> failures,
+            List<byte[]> sample
+    ) throws IOException, IllegalStateException {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        if (this.state != RelpConnectionState.OPEN) {
+            throw new IllegalStateException("Session is not in open state, can not commit.");
+        }
+        this.state = RelpConnectionState.COMMIT;
+
+        Map<Integer, byte[]> inFlight = new HashMap<>();
+        long[] failed = new long[1];
+        long sent = 0;
+        long acknowledged = 0;
+
+        this.preAllocatedTXBuffer = bufferPool.acquire(this.txBufferSize);
+        try {
+            while (true) {
+                while (inFlight.size() < maxInFlight && payloads.hasNext()) {
+                    byte[] payload = payloads.next();
+                    RelpFrameTX relpRequest = new RelpFrameTX(payload);
+                    int txnId = this.txID.getNextTransactionIdentifier();
+                    relpRequest.setTransactionNumber(txnId);
+                    inFlight.put(txnId, payload);
+                    sendRelpRequestAsync(relpRequest);
+                    sent++;
+                }
+                flushTX();
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                acknowledged = acknowledged + readStreamAcks(inFlight, acknowledgements, failures, failed);
+            }
+        }
+        catch (IOException | TimeoutException e) {
+            for (byte[] payload : inFlight.values()) {
+                failed[0]++;
+                failures.accept(payload);
+            }
+            throw new RelpStreamException(
+                    "Stream failed: " + e.getMessage(),
+                    e,
+                    new RelpStreamReport(sent, acknowledged, failed[0], sample)
+            );
+        }
+        finally {
+            bufferPool.release(this.preAllocatedTXBuffer);
+            this.preAllocatedTXBuffer = null;
+        }
+        this.state = RelpConnectionState.OPEN;
+        return new RelpStreamReport(sent, acknowledged, failed[0], sample);
+    }
+
+    /**
+     * Reads once and processes the acknowledgements read, releasing their payloads.
+     *
+     * @param failed counter of failed payloads, incremented in place
+     * @return amount of payloads acknowledged with 200
+     */
+    private int readStreamAcks(
+            Map<Integer, byte[]> inFlight,
+            BiConsumer<byte[], RelpFrameRX> acknowledgements,
+            Consumer<byte[]> failures,
+            long[] failed
+    ) throws IOException, TimeoutException {
+        int acknowledged = 0;
+        int readBytes = relpClientSocket.read(preAllocatedRXBuffer);
+        preAllocatedRXBuffer.flip();
+        if (readBytes > 0) {
+            while (preAllocatedRXBuffer.hasRemaining()) {
+                parser.parse(preAllocatedRXBuffer.get());
+                if (parser.isComplete()) {
+                    byte[] payload = inFlight.remove(parser.getTxnId());
+                    if (payload != null) {
+                        RelpFrameRX response = new RelpFrameRX(
+                                parser.getTxnId(),
+                                parser.getCommandString(),
+                                parser.getLength(),
+                                parser.getData()
+                        );
+                        if (isAccepted(response)) {
+                            acknowledged++;
+                            acknowledgements.accept(payload, response);
+                        }
+                        else {
+                            failed[0]++;
+                            failures.accept(payload);
+                        }
+                    }
+                    parser.reset();
+                }
+            }
+        }
+        preAllocatedRXBuffer.compact();
+        return acknowledged;
+    }
+
+    private boolean isAccepted(RelpFrameRX response) {
+        try {
+            return response.getResponseCode() == 200;
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Processes all the jobs in the workQueue of the given batch by iterating through each requestId, retrieving the
      * request frame associated with the id, setting a linearly incremented txID and sending the request to server.
@@ -209,16 +524,25 @@ public class RelpConnection implements RelpSender {
         // send a batch of requests..
         RelpFrameTX relpRequest;
 
-        while (relpBatch.getWorkQueueLength() > 0) {
-            long reqId = relpBatch.popWorkQueue();
-            relpRequest = relpBatch.getRequest(reqId);
+        this.preAllocatedTXBuffer = bufferPool.acquire(this.txBufferSize);
+        try {
+            while (relpBatch.getWorkQueueLength() > 0) {
+                long reqId = relpBatch.popWorkQueue();
+                relpRequest = relpBatch.getRequest(reqId);
 
-            int txnId = this.txID.getNextTransactionIdentifier();
-            relpRequest.setTransactionNumber(txnId);
+                int txnId = this.txID.getNextTransactionIdentifier();
+                relpRequest.setTransactionNumber(txnId);
 
-            this.window.putPending(txnId, reqId);
+                this.window.putPending(txnId, reqId);
 
-            sendRelpRequestAsync(relpRequest);
+                sendRelpRequestAsync(relpRequest);
+            }
+            flushTX();
+        }
+        finally {
+            // frames not written with a failed batch go back to the pool with the buffer
+            bufferPool.release(this.preAllocatedTXBuffer);
+            this.preAllocatedTXBuffer = null;
         }
         readAcks(relpBatch);
     }
@@ -269,22 +593,77 @@ public class RelpConnection implements RelpSender {
         }
     }
 
+    /**
+     * Collects the request into the TX buffer, which is written once the next request would not fit within the
+     * coalescing limit of the socket. Several small frames are this way encrypted into one TLS record and sent with one
+     * write instead of each paying for their own.
+     */
     private void sendRelpRequestAsync(RelpFrameTX relpRequest) throws IOException, TimeoutException {
-        ByteBuffer byteBuffer;
-        if (relpRequest.length() > this.txBufferSize) {
-            byteBuffer = ByteBuffer.allocateDirect(relpRequest.length());
+        int frameLength = relpRequest.length();
+        int coalescingLimit = Math.min(this.txBufferSize, relpClientSocket.getCoalescingLimit());
+        if (this.preAllocatedTXBuffer.position() + frameLength > coalescingLimit) {
+            flushTX();
+        }
+
+        if (frameLength > this.txBufferSize) {
+            ByteBuffer byteBuffer = bufferPool.acquire(frameLength);
+            try {
+                relpRequest.write(byteBuffer);
+                byteBuffer.flip();
+                relpClientSocket.write(byteBuffer);
+            }
+            finally {
+                bufferPool.release(byteBuffer);
+            }
         }
         else {
-            byteBuffer = this.preAllocatedTXBuffer;
+            relpRequest.write(this.preAllocatedTXBuffer);
         }
-        relpRequest.write(byteBuffer);
+    }
 
-        byteBuffer.flip();
+    private void flushTX() throws IOException, TimeoutException {
+        if (this.preAllocatedTXBuffer.position() == 0) {
+            return;
+        }
+        this.preAllocatedTXBuffer.flip();
         try {
-            relpClientSocket.write(byteBuffer);
+            relpClientSocket.write(this.preAllocatedTXBuffer);
         }
         finally {
-            byteBuffer.clear();
+            this.preAllocatedTXBuffer.clear();
+        }
+    }
+
+    /**
+     * Pulls from the supplier only when asked whether there is a next payload, so that nothing is pulled before the
+     * stream has been validated and no payload is held without being sent.
+     */
+    private static final class SupplierIterator implements Iterator<byte[]> {
+
+        private final Supplier<byte[]> payloads;
+        private byte[] next;
+
+        private SupplierIterator(Supplier<byte[]> payloads) {
+            this.payloads = payloads;
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = payloads.get();
+            }
+            return next != null;
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            byte[] current = next;
+            next = null;
+            return current;
         }
     }
 }
@@ -0,0 +1,173 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.OptionalLong;
+import java.util.Random;
+
+/**
+ * Embedded RELP server side for {@link RelpClientLoopbackSocket}. Acknowledges open, syslog and close frames after the
+ * configured latency and a random jitter, and answers syslog frames with an error at the configured failure rate.
+ * Responses are delivered in the order of the requests. Not thread-safe, the socket guards it.
+ */
+public final class RelpLoopbackResponder {
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double failureRate;
+    private final Random random;
+
+    private final RelpParser parser;
+    private final ArrayDeque<PendingResponse> pendingResponses;
+    private OptionalLong lastDue;
+
+    /**
+     * Responder that acknowledges everything right away.
+     */
+    public RelpLoopbackResponder() {
+        this(Duration.ZERO, Duration.ZERO, 0);
+    }
+
+    /**
+     * @param latency     time from receiving a frame to its response being readable
+     * @param jitter      upper bound of random time added to the latency
+     * @param failureRate share of syslog frames answered with an error, between 0 and 1
+     */
+    public RelpLoopbackResponder(Duration latency, Duration jitter, double failureRate) {
+        this(latency, jitter, failureRate, new Random());
+    }
+
+    public RelpLoopbackResponder(Duration latency, Duration jitter, double failureRate, Random random) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("failureRate must be between 0 and 1");
+        }
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        this.failureRate = failureRate;
+        this.random = random;
+        this.parser = new RelpParser();
+        this.pendingResponses = new ArrayDeque<>();
+        this.lastDue = OptionalLong.empty();
+    }
+
+    /**
+     * Forgets the state of the previous session.
+     */
+    void reset() {
+        parser.reset();
+        pendingResponses.clear();
+        lastDue = OptionalLong.empty();
+    }
+
+    /**
+     * Consumes the frames written by the client.
+     *
+     * @param src bytes written by the client
+     * @param now current {@link System#nanoTime()}
+     */
+    void receive(ByteBuffer src, long now) {
+        while (src.hasRemaining()) {
+            parser.parse(src.get());
+            if (parser.isComplete()) {
+                String response = response(parser.getTxnId(), parser.getCommandString());
+                parser.reset();
+
+                long due = now + latencyNanos;
+                if (jitterNanos > 0) {
+                    due = due + (long) (random.nextDouble() * jitterNanos);
+                }
+                // a stream keeps its order, a response can not overtake the one before it
+                if (lastDue.isPresent() && due - lastDue.getAsLong() < 0) {
+                    due = lastDue.getAsLong();
+                }
+                lastDue = OptionalLong.of(due);
+                pendingResponses
+                        .add(new PendingResponse(ByteBuffer.wrap(response.getBytes(StandardCharsets.US_ASCII)), due));
+            }
+        }
+    }
+
+    private String response(int txnId, String command) {
+        String response;
+        if (RelpCommand.CLOSE.equals(command)) {
+            response = txnId + " rsp 0\n";
+        }
+        else if (RelpCommand.SYSLOG.equals(command) && failureRate > 0 && random.nextDouble() < failureRate) {
+            response = txnId + " rsp 11 500 Failure\n";
+        }
+        else {
+            response = txnId + " rsp 6 200 OK\n";
+        }
+        return response;
+    }
+
+    /**
+     * @return true if responses are waiting to become readable or to be read
+     */
+    boolean hasPending() {
+        return !pendingResponses.isEmpty();
+    }
+
+    /**
+     * @return {@link System#nanoTime()} at which the next response becomes readable, only valid if
+     *         {@link #hasPending()}
+     */
+    long nextDue() {
+        return pendingResponses.getFirst().due;
+    }
+
+    /**
+     * Copies the responses that have become readable.
+     *
+     * @param dst buffer to read into
+     * @param now current {@link System#nanoTime()}
+     * @return amount of bytes copied
+     */
+    int respond(ByteBuffer dst, long now) {
+        int read = 0;
+        while (dst.hasRemaining() && !pendingResponses.isEmpty()) {
+            PendingResponse pendingResponse = pendingResponses.getFirst();
+            if (pendingResponse.due - now > 0) {
+                break;
+            }
+            ByteBuffer bytes = pendingResponse.bytes;
+            while (dst.hasRemaining() && bytes.hasRemaining()) {
+                dst.put(bytes.get());
+                read++;
+            }
+            if (!bytes.hasRemaining()) {
+                pendingResponses.removeFirst();
+            }
+        }
+        return read;
+    }
+
+    private static final class PendingResponse {
+
+        private final ByteBuffer bytes;
+        private final long due;
+
+        PendingResponse(ByteBuffer bytes, long due) {
+            this.bytes = bytes;
+            this.due = due;
+        }
+    }
+}
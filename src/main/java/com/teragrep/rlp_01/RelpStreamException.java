@@ -0,0 +1,42 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a streaming commit breaks, carries the report of what was sent until then. The connection needs to be
+ * torn down before it is used again.
+ */
+public class RelpStreamException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient RelpStreamReport report;
+
+    public RelpStreamException(String message, Throwable cause, RelpStreamReport report) {
+        super(message, cause);
+        this.report = report;
+    }
+
+    /**
+     * @return report of the stream, its failed payloads include the ones that were in flight
+     */
+    public RelpStreamReport getReport() {
+        return report;
+    }
+}
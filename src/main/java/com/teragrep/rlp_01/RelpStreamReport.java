@@ -0,0 +1,82 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a streaming commit, see {@link RelpConnection#commitStream(java.util.Iterator, int)}.
+ */
+public final class RelpStreamReport {
+
+    private final long sent;
+    private final long acknowledged;
+    private final long failedCount;
+    private final List<byte[]> failed;
+
+    /**
+     * @param sent         payloads written to the connection
+     * @param acknowledged payloads acknowledged with 200
+     * @param failedCount  payloads rejected or left without an acknowledgement
+     * @param failed       sample of the failed payloads, at most {@link RelpConnection#MAX_FAILED_SAMPLE}
+     */
+    public RelpStreamReport(long sent, long acknowledged, long failedCount, List<byte[]> failed) {
+        this.sent = sent;
+        this.acknowledged = acknowledged;
+        this.failedCount = failedCount;
+        this.failed = Collections.unmodifiableList(failed);
+    }
+
+    /**
+     * @return payloads written to the connection
+     */
+    public long sent() {
+        return sent;
+    }
+
+    /**
+     * @return payloads the server acknowledged with 200
+     */
+    public long acknowledged() {
+        return acknowledged;
+    }
+
+    /**
+     * @return number of payloads the server rejected, and of those left without an acknowledgement if the stream broke
+     */
+    public long failedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Failed payloads are kept only up to a bounded sample so that memory stays constant, use
+     * {@link RelpConnection#commitStream(java.util.Iterator, int, java.util.function.Consumer)} to get all of them for
+     * sending again.
+     *
+     * @return the first failed payloads, at most {@link RelpConnection#MAX_FAILED_SAMPLE} of them
+     */
+    public List<byte[]> failed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "RelpStreamReport{" + "sent=" + sent + ", acknowledged=" + acknowledged + ", failedCount=" + failedCount
+                + '}';
+    }
+}
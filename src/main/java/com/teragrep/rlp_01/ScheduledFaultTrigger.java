@@ -0,0 +1,54 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires on the given operation and then on every interval operations after it, counting from 1.
+ */
+public final class ScheduledFaultTrigger implements FaultTrigger {
+
+    private final long first;
+    private final long interval;
+    private final AtomicLong operations;
+
+    /**
+     * @param first    operation that fires first
+     * @param interval operations between firings, 0 fires only once
+     */
+    public ScheduledFaultTrigger(long first, long interval) {
+        if (first < 1 || interval < 0) {
+            throw new IllegalArgumentException("first must be positive and interval not negative");
+        }
+        this.first = first;
+        this.interval = interval;
+        this.operations = new AtomicLong();
+    }
+
+    @Override
+    public boolean fire() {
+        long operation = operations.incrementAndGet();
+        if (operation < first) {
+            return false;
+        }
+        if (interval == 0) {
+            return operation == first;
+        }
+        return (operation - first) % interval == 0;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.time.Duration;
+
+/**
+ * Faults injected by {@link RelpClientFaultInjectingSocket}. Immutable, each with-method returns a copy with the fault
+ * added. Faults that happen now and then are fired by a trigger, such as {@link RandomFaultTrigger} or
+ * {@link ScheduledFaultTrigger}. Stall and reset triggers are asked once per read and write, the half-open trigger once
+ * per write.
+ */
+public final class SocketFaults {
+
+    private static final FaultTrigger NEVER = () -> false;
+
+    final Duration delay;
+    final Duration jitter;
+    final long bytesPerSecond;
+    final int maxWriteBytes;
+    final int maxReadBytes;
+    final FaultTrigger stallTrigger;
+    final Duration stall;
+    final FaultTrigger resetTrigger;
+    final FaultTrigger halfOpenTrigger;
+
+    /**
+     * No faults.
+     */
+    public SocketFaults() {
+        this(Duration.ZERO, Duration.ZERO, 0, 0, 0, NEVER, Duration.ZERO, NEVER, NEVER);
+    }
+
+    private SocketFaults(
+            Duration delay,
+            Duration jitter,
+            long bytesPerSecond,
+            int maxWriteBytes,
+            int maxReadBytes,
+            FaultTrigger stallTrigger,
+            Duration stall,
+            FaultTrigger resetTrigger,
+            FaultTrigger halfOpenTrigger
+    ) {
+        this.delay = delay;
+        this.jitter = jitter;
+        this.bytesPerSecond = bytesPerSecond;
+        this.maxWriteBytes = maxWriteBytes;
+        this.maxReadBytes = maxReadBytes;
+        this.stallTrigger = stallTrigger;
+        this.stall = stall;
+        this.resetTrigger = resetTrigger;
+        this.halfOpenTrigger = halfOpenTrigger;
+    }
+
+    /**
+     * @param delay  added to every read and write
+     * @param jitter upper bound of random time added to the delay
+     */
+    public SocketFaults withDelay(Duration delay, Duration jitter) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+
+    /**
+     * @param bytesPerSecond bandwidth shared by reads and writes
+     */
+    public SocketFaults withBandwidth(long bytesPerSecond) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+
+    /**
+     * @param maxWriteBytes the socket underneath is given at most this many bytes per write
+     */
+    public SocketFaults withPartialWrites(int maxWriteBytes) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+
+    /**
+     * @param maxReadBytes reads return at most this many bytes
+     */
+    public SocketFaults withShortReads(int maxReadBytes) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+
+    /**
+     * @param stallTrigger fires a stall
+     * @param stall        time the read or write stalls for
+     */
+    public SocketFaults withStalls(FaultTrigger stallTrigger, Duration stall) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+
+    /**
+     * @param resetTrigger fires a reset, which closes the connection and fails the read or write
+     */
+    public SocketFaults withResets(FaultTrigger resetTrigger) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+
+    /**
+     * @param halfOpenTrigger fires a half-open connection, which swallows writes and never has anything to read until
+     *                        it is opened again
+     */
+    public SocketFaults withHalfOpen(FaultTrigger halfOpenTrigger) {
+        return new SocketFaults(
+                delay,
+                jitter,
+                bytesPerSecond,
+                maxWriteBytes,
+                maxReadBytes,
+                stallTrigger,
+                stall,
+                resetTrigger,
+                halfOpenTrigger
+        );
+    }
+}
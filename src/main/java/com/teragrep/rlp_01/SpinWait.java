@@ -0,0 +1,54 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Busy-wait hint for the processor. Uses Thread.onSpinWait() when running on Java 9 or newer, on Java 8 the hint is a
+ * no-op.
+ */
+final class SpinWait {
+
+    private static final MethodHandle ON_SPIN_WAIT;
+
+    static {
+        MethodHandle onSpinWait;
+        try {
+            onSpinWait = MethodHandles
+                    .publicLookup()
+                    .findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            onSpinWait = null;
+        }
+        ON_SPIN_WAIT = onSpinWait;
+    }
+
+    void hint() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            }
+            catch (Throwable throwable) {
+                // onSpinWait does not throw
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous sender that keeps the network round trip off the application threads. Messages are put into a bounded
+ * ring buffer of preallocated slots and the thread running the sender drains them into batches, which are sent with
+ * {@link IManagedRelpConnection#ensureSent(RelpBatch)} once the batch reaches the frame or byte limit, or the linger
+ * time since its first message has passed. Any amount of threads may send.
+ */
+public class AsyncRelpSender implements Runnable, Closeable {
+
+    // upper bound of a park on an empty ring, a safety net should a wakeup ever be missed
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final IManagedRelpConnection managedRelpConnection;
+    private final int maxBatchFrames;
+    private final long maxBatchBytes;
+    private final long lingerNanos;
+
+    // ring buffer: a slot is published when its sequence is stored in published
+    private final byte[][] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed;
+    private volatile long consumed;
+
+    private final AtomicBoolean parked;
+    private volatile Thread owner;
+    private volatile boolean running;
+
+    /**
+     * Sender with room for 65536 messages, flushing at 1024 messages, 1 MiB or 10 milliseconds.
+     */
+    public AsyncRelpSender(IManagedRelpConnection managedRelpConnection) {
+        this(managedRelpConnection, 65536, 1024, 1024 * 1024, 10);
+    }
+
+    /**
+     * @param managedRelpConnection connection owned by the thread running the sender
+     * @param capacity              messages the ring buffer holds, rounded up to a power of two
+     * @param maxBatchFrames        messages in a batch at most
+     * @param maxBatchBytes         bytes of messages in a batch at most, a single larger message is sent alone
+     * @param lingerMillis          milliseconds a batch waits for more messages after its first one
+     */
+    public AsyncRelpSender(
+            IManagedRelpConnection managedRelpConnection,
+            int capacity,
+            int maxBatchFrames,
+            long maxBatchBytes,
+            long lingerMillis
+    ) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        if (maxBatchFrames < 1 || maxBatchBytes < 1) {
+            throw new IllegalArgumentException("maxBatchFrames and maxBatchBytes must be at least 1");
+        }
+        this.managedRelpConnection = managedRelpConnection;
+        this.maxBatchFrames = maxBatchFrames;
+        this.maxBatchBytes = maxBatchBytes;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size = size << 1;
+        }
+        this.slots = new byte[size][];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.claimed = new AtomicLong();
+        this.consumed = 0;
+
+        this.parked = new AtomicBoolean();
+        this.running = true;
+    }
+
+    /**
+     * Puts the message into the ring buffer without waiting.
+     *
+     * @param syslogMessage message to send
+     * @return false if the ring buffer is full or the sender is closed
+     */
+    public boolean offer(byte[] syslogMessage) {
+        if (!running) {
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                return false;
+            }
+        }
+        while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        slots[index] = syslogMessage;
+        // a volatile store: the slot write happens before the consumer sees the sequence, and the parked flag is read
+        // only after the sequence is visible, so an owner parking on an empty ring is always unparked
+        published.set(index, sequence);
+
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            LockSupport.unpark(owner);
+        }
+        return true;
+    }
+
+    /**
+     * Puts the message into the ring buffer, returns immediately unless the ring buffer is full, in which case it waits
+     * for room.
+     *
+     * @param syslogMessage message to send
+     * @throws IllegalStateException if the sender is closed
+     */
+    public void send(byte[] syslogMessage) {
+        while (!offer(syslogMessage)) {
+            if (!running) {
+                throw new IllegalStateException("Sender is closed");
+            }
+            LockSupport.parkNanos(this, 100_000L);
+        }
+    }
+
+    /**
+     * @return messages in the ring buffer waiting for a batch
+     */
+    public long pending() {
+        return claimed.get() - consumed;
+    }
+
+    private byte[] peek() {
+        long sequence = consumed;
+        int index = (int) sequence & mask;
+        if (published.get(index) != sequence) {
+            return null;
+        }
+        return slots[index];
+    }
+
+    private void remove() {
+        long sequence = consumed;
+        slots[(int) sequence & mask] = null;
+        consumed = sequence + 1;
+    }
+
+    private boolean isEmpty() {
+        return published.get((int) consumed & mask) != consumed;
+    }
+
+    @Override
+    public void run() {
+        owner = Thread.currentThread();
+        try {
+            boolean draining = true;
+            while (draining) {
+                RelpBatch relpBatch = new RelpBatch();
+                int frames = 0;
+                long bytes = 0;
+                long lingerUntil = 0;
+                while (frames < maxBatchFrames) {
+                    byte[] syslogMessage = peek();
+                    if (syslogMessage != null) {
+                        if (frames > 0 && bytes + syslogMessage.length > maxBatchBytes) {
+                            // left for the next batch
+                            break;
+                        }
+                        remove();
+                        if (frames == 0) {
+                            lingerUntil = System.nanoTime() + lingerNanos;
+                        }
+                        relpBatch.insert(syslogMessage);
+                        frames++;
+                        bytes = bytes + syslogMessage.length;
+                    }
+                    else if (!running) {
+                        if (claimed.get() == consumed) {
+                            // closed and everything sent
+                            draining = frames > 0;
+                            break;
+                        }
+                        // a message claimed before close is being published
+                        Thread.yield();
+                    }
+                    else if (frames > 0) {
+                        long remaining = lingerUntil - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        await(remaining);
+                    }
+                    else {
+                        await(MAX_PARK_NANOS);
+                    }
+                }
+                if (frames > 0) {
+                    managedRelpConnection.ensureSent(relpBatch);
+                }
+            }
+        }
+        finally {
+            running = false;
+            try {
+                managedRelpConnection.close();
+            }
+            catch (IOException e) {
+                System.err.println("Exception <" + e.getMessage() + "> while closing async sender connection");
+            }
+        }
+    }
+
+    private void await(long nanos) {
+        parked.set(true);
+        // a message may have been published before the flag was visible
+        if (isEmpty() && running) {
+            LockSupport.parkNanos(this, Math.min(nanos, MAX_PARK_NANOS));
+        }
+        parked.set(false);
+    }
+
+    /**
+     * Stops accepting messages, the thread running the sender sends what is in the ring buffer and then closes the
+     * connection. Messages offered concurrently with close may be left unsent.
+     */
+    @Override
+    public void close() {
+        running = false;
+        Thread currentOwner = owner;
+        if (currentOwner != null) {
+            LockSupport.unpark(currentOwner);
+        }
+    }
+}
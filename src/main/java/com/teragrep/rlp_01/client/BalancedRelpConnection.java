@@ -0,0 +1,301 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Spreads batches over one connection per target, the target of each batch is chosen by a {@link RelpTargetSelector}
+ * from the load recorded in the shared {@link RelpTargetState}s.
+ * <p>
+ * Each attempt goes to a single target. When a connect or commit fails, the target is marked down in its shared state
+ * and the batch is retried on another target, a target that is down is skipped for the reconnect interval of its
+ * connection. Only when every target is down are the attempts spaced out by the backoff.
+ */
+public class BalancedRelpConnection implements IManagedRelpConnection {
+
+    private final List<RelpTargetState> targets;
+    private final List<IRelpConnection> connections;
+    private final RelpTargetSelector selector;
+    private final ReconnectBackoff backoff;
+    private final Executor executor;
+    // connect has been called on the connection since it was last torn down
+    private final boolean[] opened;
+
+    /**
+     * Attempts are the reconnect interval of the first connection apart when every target is down.
+     *
+     * @param targets     load of each target, shared between connections of the same factory
+     * @param connections connection to each target, in the same order
+     * @param selector    chooses the target of each batch
+     */
+    public BalancedRelpConnection(
+            List<RelpTargetState> targets,
+            List<IRelpConnection> connections,
+            RelpTargetSelector selector
+    ) {
+        this(
+                targets,
+                connections,
+                selector,
+                (attempt, previousDelay) -> connections.get(0).relpConfig().relpReconnectInterval
+        );
+    }
+
+    /**
+     * @param targets     load of each target, shared between connections of the same factory
+     * @param connections connection to each target, in the same order
+     * @param selector    chooses the target of each batch
+     * @param backoff     wait between attempts when every target is down
+     */
+    public BalancedRelpConnection(
+            List<RelpTargetState> targets,
+            List<IRelpConnection> connections,
+            RelpTargetSelector selector,
+            ReconnectBackoff backoff
+    ) {
+        if (targets.isEmpty() || targets.size() != connections.size()) {
+            throw new IllegalArgumentException(
+                    "Expected a connection for each of <" + targets.size() + "> targets, got <" + connections.size()
+                            + ">"
+            );
+        }
+        this.targets = targets;
+        this.connections = connections;
+        this.selector = selector;
+        this.backoff = backoff;
+        this.executor = new SerialExecutor(ManagedRelpConnection.ioThread());
+        this.opened = new boolean[connections.size()];
+    }
+
+    @Override
+    public void reconnect() {
+        close();
+        connect();
+    }
+
+    /**
+     * Connects to every target that is not down, and keeps trying until at least one of them is connected.
+     *
+     * @return number of attempts required to connect
+     * @throws IllegalStateException if the thread is interrupted while waiting to retry, the interrupt status is kept
+     */
+    @Override
+    public long connect() {
+        long attempts = 0;
+        long delay = 0;
+        long rounds = 0;
+        List<Integer> available = available();
+        while (true) {
+            boolean connected = false;
+            for (int index : available) {
+                if (opened[index]) {
+                    connected = true;
+                    continue;
+                }
+                attempts++;
+                if (open(index)) {
+                    connected = true;
+                }
+                else {
+                    tearDown(index);
+                }
+            }
+            if (connected) {
+                return attempts;
+            }
+            rounds++;
+            delay = await(rounds, delay);
+            available = all();
+        }
+    }
+
+    @Override
+    public void forceReconnect() {
+        for (int index = 0; index < connections.size(); index++) {
+            tearDown(index);
+        }
+        connect();
+    }
+
+    @Override
+    public long ensureSent(byte[] bytes) {
+        final RelpBatch relpBatch = new RelpBatch();
+        relpBatch.insert(bytes);
+        return ensureSent(relpBatch);
+    }
+
+    /**
+     * Commits the batch to a target chosen by the selector, moving to another target whenever an attempt fails, until
+     * every frame is acknowledged.
+     *
+     * @return number of attempts required to commit the batch
+     * @throws IllegalStateException if the thread is interrupted while waiting to retry, the interrupt status is kept
+     */
+    @Override
+    public long ensureSent(RelpBatch relpBatch) {
+        long attempts = 0;
+        long delay = 0;
+        long rounds = 0;
+        while (true) {
+            List<Integer> available = available();
+            if (available.isEmpty()) {
+                // every target is down, wait and then try them all
+                rounds++;
+                delay = await(rounds, delay);
+                available = all();
+            }
+            final List<RelpTargetState> candidates = new ArrayList<>(available.size());
+            for (int index : available) {
+                candidates.add(targets.get(index));
+            }
+            final int index = available.get(selector.select(candidates));
+            attempts++;
+            if (attempt(index, relpBatch)) {
+                return attempts;
+            }
+        }
+    }
+
+    /**
+     * Connects if needed and commits once.
+     *
+     * @return true if every frame of the batch was acknowledged, otherwise the target is marked down and the failed
+     *         frames are queued for retry
+     */
+    private boolean attempt(int index, RelpBatch relpBatch) {
+        final RelpTargetState target = targets.get(index);
+        final IRelpConnection relpConnection = connections.get(index);
+        target.begin();
+        final long start = System.nanoTime();
+        try {
+            if (opened[index] || open(index)) {
+                relpConnection.commit(relpBatch);
+            }
+        }
+        catch (IllegalStateException | IOException | TimeoutException e) {
+            System.err
+                    .println(
+                            "Exception <" + e.getMessage() + "> while sending relpBatch to <"
+                                    + relpConnection.relpConfig().relpTarget + ">:<"
+                                    + relpConnection.relpConfig().relpPort + ">. Will retry"
+                    );
+        }
+        if (relpBatch.verifyTransactionAll()) {
+            target.end(System.nanoTime() - start);
+            return true;
+        }
+        relpBatch.retryAllFailed();
+        target.failed();
+        tearDown(index);
+        return false;
+    }
+
+    private boolean open(int index) {
+        final IRelpConnection relpConnection = connections.get(index);
+        opened[index] = true;
+        try {
+            return relpConnection.connect(relpConnection.relpConfig().relpTarget, relpConnection.relpConfig().relpPort);
+        }
+        catch (Exception e) {
+            System.err
+                    .println(
+                            "Failed to connect to relp server <[" + relpConnection.relpConfig().relpTarget + "]>:<["
+                                    + relpConnection.relpConfig().relpPort + "]>: <" + e.getMessage() + ">"
+                    );
+            return false;
+        }
+    }
+
+    private void tearDown(int index) {
+        // tearDown of a connection that never connected fails, see https://github.com/teragrep/rlp_01/issues/63
+        if (opened[index]) {
+            connections.get(index).tearDown();
+            opened[index] = false;
+        }
+    }
+
+    /**
+     * @return indexes of the targets that are not down, or have been down for the reconnect interval
+     */
+    private List<Integer> available() {
+        final List<Integer> available = new ArrayList<>(targets.size());
+        for (int index = 0; index < targets.size(); index++) {
+            final long retryNanos = TimeUnit.MILLISECONDS
+                    .toNanos(connections.get(index).relpConfig().relpReconnectInterval);
+            if (targets.get(index).available(retryNanos)) {
+                available.add(index);
+            }
+        }
+        return available;
+    }
+
+    private List<Integer> all() {
+        final List<Integer> all = new ArrayList<>(targets.size());
+        for (int index = 0; index < targets.size(); index++) {
+            all.add(index);
+        }
+        return all;
+    }
+
+    private long await(long rounds, long previousDelay) {
+        final long delay = backoff.delay(rounds, previousDelay);
+        try {
+            Thread.sleep(delay);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retrying interrupted after <" + rounds + "> rounds over all targets", e);
+        }
+        return delay;
+    }
+
+    @Override
+    public Executor executor() {
+        return executor;
+    }
+
+    @Override
+    public boolean isStub() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        for (int index = 0; index < connections.size(); index++) {
+            if (!opened[index]) {
+                continue;
+            }
+            try {
+                connections.get(index).disconnect();
+            }
+            catch (IllegalStateException | IOException | TimeoutException e) {
+                System.err.println("Forcefully closing connection due to exception <" + e.getMessage() + ">");
+            }
+            finally {
+                tearDown(index);
+            }
+        }
+    }
+}
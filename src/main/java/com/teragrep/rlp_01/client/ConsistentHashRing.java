@@ -0,0 +1,123 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable consistent-hash ring, each node owns the keys hashing between its virtual nodes and the previous ones.
+ * Adding or removing one of n nodes moves about 1/n of the keys and leaves the rest where they were.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * @param nodes        names of the nodes, such as "host:port"
+     * @param virtualNodes points each node has on the ring, more points spread the keys more evenly
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Ring requires at least one virtual node per node");
+        }
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        this.virtualNodes = virtualNodes;
+
+        final long[] entries = new long[this.nodes.size() * virtualNodes];
+        final String[] entryOwners = new String[entries.length];
+        int entry = 0;
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                entries[entry] = hash(node + "#" + i);
+                entryOwners[entry] = node;
+                entry++;
+            }
+        }
+        // sort the points and their owners together, ties are broken by node name to keep rings deterministic
+        final Integer[] order = new Integer[entries.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int compared = Long.compare(entries[a], entries[b]);
+            return compared != 0 ? compared : entryOwners[a].compareTo(entryOwners[b]);
+        });
+        this.points = new long[entries.length];
+        this.owners = new String[entries.length];
+        for (int i = 0; i < order.length; i++) {
+            points[i] = entries[order[i]];
+            owners[i] = entryOwners[order[i]];
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * @param key key to place, such as the syslog HOSTNAME
+     * @return node owning the key
+     */
+    public String node(String key) {
+        if (points.length == 0) {
+            throw new IllegalStateException("Ring has no nodes");
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // the key belongs to the first point at or after its hash, wrapping around the ring
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public ConsistentHashRing with(String node) {
+        List<String> added = new ArrayList<>(nodes);
+        added.add(node);
+        return new ConsistentHashRing(added, virtualNodes);
+    }
+
+    public ConsistentHashRing without(String node) {
+        List<String> removed = new ArrayList<>(nodes);
+        removed.remove(node);
+        return new ConsistentHashRing(removed, virtualNodes);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so that similar keys land far apart.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
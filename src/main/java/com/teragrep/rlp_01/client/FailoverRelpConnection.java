@@ -0,0 +1,410 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.ConnectReport;
+import com.teragrep.rlp_01.HashedWheelTimer;
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpFrameRX;
+import com.teragrep.rlp_01.RelpStreamReport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Connection to the first available of a primary and its standby targets, in order of preference.
+ * <p>
+ * {@link #connect(String, int)} ignores its arguments and tries the targets in order, skipping the ones that have
+ * failed, so a {@link ManagedRelpConnection} only waits for its reconnect interval when no target at all accepts the
+ * connection. A target that fails to connect or to answer a commit is left alone until {@link #run()}, the background
+ * probe, has seen it answer RELP open and close for the whole stable period. The connection then fails back to it
+ * before the next commit; the standby stays connected if the fail-back does not succeed.
+ * <p>
+ * Schedule {@link #run()} periodically from a single thread, for example with
+ * {@link java.util.concurrent.ScheduledExecutorService#scheduleWithFixedDelay(Runnable, long, long, java.util.concurrent.TimeUnit)}.
+ * Without probing, failed targets are only retried once all the others have failed too.
+ */
+public class FailoverRelpConnection implements IRelpConnection, Runnable {
+
+    private final List<FailoverTarget> targets;
+    private final long stableNanos;
+    private int active;
+    private boolean connected;
+
+    /**
+     * @param targets      suppliers of connections to each target, most preferred first, such as
+     *                     {@code () -> new RelpConnectionWithConfig(new RelpConnection(), relpConfig)}. Each supplier
+     *                     is called once for the connection used by senders and once per probe.
+     * @param stablePeriod time a failed target must pass probes before it is failed back to
+     */
+    public FailoverRelpConnection(List<Supplier<IRelpConnection>> targets, Duration stablePeriod) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Failover requires at least one target");
+        }
+        this.targets = new ArrayList<>(targets.size());
+        for (Supplier<IRelpConnection> target : targets) {
+            this.targets.add(new FailoverTarget(target));
+        }
+        this.stableNanos = stablePeriod.toNanos();
+        this.active = 0;
+        this.connected = false;
+    }
+
+    /**
+     * @return index of the target in use or last used
+     */
+    public int active() {
+        return active;
+    }
+
+    /**
+     * @param index index of a target
+     * @return true if the target has failed and has not been connected to since
+     */
+    public boolean isDown(int index) {
+        return targets.get(index).down;
+    }
+
+    private IRelpConnection current() {
+        return targets.get(active).relpConnection;
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return current().getReadTimeout();
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setReadTimeout(readTimeout);
+        }
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return current().getWriteTimeout();
+    }
+
+    @Override
+    public void setWriteTimeout(int writeTimeout) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setWriteTimeout(writeTimeout);
+        }
+    }
+
+    @Override
+    public int getConnectionTimeout() {
+        return current().getConnectionTimeout();
+    }
+
+    @Override
+    public void setConnectionTimeout(int timeout) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setConnectionTimeout(timeout);
+        }
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setKeepAlive(on);
+        }
+    }
+
+    @Override
+    public ConnectReport getConnectReport() {
+        return current().getConnectReport();
+    }
+
+    @Override
+    public int getBusyPoll() {
+        return current().getBusyPoll();
+    }
+
+    @Override
+    public void setBusyPoll(int busyPoll) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setBusyPoll(busyPoll);
+        }
+    }
+
+    @Override
+    public int getCommitTimeout() {
+        return current().getCommitTimeout();
+    }
+
+    @Override
+    public void setCommitTimeout(HashedWheelTimer timer, int commitTimeout) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setCommitTimeout(timer, commitTimeout);
+        }
+    }
+
+    @Override
+    public int getRxBufferSize() {
+        return current().getRxBufferSize();
+    }
+
+    @Override
+    public void setRxBufferSize(int size) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setRxBufferSize(size);
+        }
+    }
+
+    @Override
+    public int getTxBufferSize() {
+        return current().getTxBufferSize();
+    }
+
+    @Override
+    public void setTxBufferSize(int size) {
+        for (FailoverTarget target : targets) {
+            target.relpConnection.setTxBufferSize(size);
+        }
+    }
+
+    /**
+     * Connects to the most preferred target that has not failed, then to the failed ones if none of those accept.
+     *
+     * @param hostname ignored, the targets carry their own
+     * @param port     ignored, the targets carry their own
+     * @return true once connected
+     * @throws IOException the failure of the last target tried if none of them accepted the connection
+     */
+    @Override
+    public boolean connect(String hostname, int port) throws IOException, IllegalStateException, TimeoutException {
+        Exception failure = null;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int index = 0; index < targets.size(); index++) {
+                FailoverTarget target = targets.get(index);
+                // the first pass skips failed targets, the second tries only them
+                if (target.down != (pass == 1)) {
+                    continue;
+                }
+                try {
+                    if (connect(index)) {
+                        return true;
+                    }
+                }
+                catch (IOException | IllegalStateException | TimeoutException e) {
+                    System.err
+                            .println(
+                                    "Failed to connect to target <" + index + "> <["
+                                            + target.relpConnection.relpConfig().relpTarget + "]>:<["
+                                            + target.relpConnection.relpConfig().relpPort + "]>: <" + e.getMessage()
+                                            + ">"
+                            );
+                    failure = e;
+                }
+            }
+        }
+        if (failure instanceof TimeoutException) {
+            throw (TimeoutException) failure;
+        }
+        if (failure instanceof IllegalStateException) {
+            throw (IllegalStateException) failure;
+        }
+        throw failure == null ? new IOException("No target accepted the connection") : (IOException) failure;
+    }
+
+    private boolean connect(int index) throws IOException, TimeoutException {
+        final FailoverTarget target = targets.get(index);
+        final boolean success;
+        try {
+            success = target.relpConnection
+                    .connect(target.relpConnection.relpConfig().relpTarget, target.relpConnection.relpConfig().relpPort);
+        }
+        catch (IOException | IllegalStateException | TimeoutException e) {
+            target.relpConnection.tearDown();
+            target.failed();
+            throw e;
+        }
+        if (success) {
+            target.down = false;
+            active = index;
+            connected = true;
+        }
+        else {
+            target.relpConnection.tearDown();
+            target.failed();
+        }
+        return success;
+    }
+
+    @Override
+    public void tearDown() {
+        connected = false;
+        current().tearDown();
+    }
+
+    @Override
+    public boolean disconnect() throws IOException, IllegalStateException, TimeoutException {
+        final boolean disconnected = current().disconnect();
+        connected = false;
+        return disconnected;
+    }
+
+    /**
+     * Commits to the current target, a target that fails to answer is marked as failed so that the following connect
+     * goes to a standby. Negative acknowledgements do not count as failures.
+     */
+    @Override
+    public void commit(RelpBatch relpBatch) throws IOException, IllegalStateException, TimeoutException {
+        failBack();
+        try {
+            current().commit(relpBatch);
+        }
+        catch (IOException | TimeoutException e) {
+            targets.get(active).failed();
+            throw e;
+        }
+    }
+
+    @Override
+    public RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        failBack();
+        try {
+            return current().commitStream(payloads, maxInFlight);
+        }
+        catch (IOException e) {
+            targets.get(active).failed();
+            throw e;
+        }
+    }
+
+    @Override
+    public RelpStreamReport commitStream(Supplier<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        failBack();
+        try {
+            return current().commitStream(payloads, maxInFlight);
+        }
+        catch (IOException e) {
+            targets.get(active).failed();
+            throw e;
+        }
+    }
+
+    @Override
+    public RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight, Consumer<byte[]> failures)
+            throws IOException, IllegalStateException {
+        failBack();
+        try {
+            return current().commitStream(payloads, maxInFlight, failures);
+        }
+        catch (IOException e) {
+            targets.get(active).failed();
+            throw e;
+        }
+    }
+
+    @Override
+    public RelpStreamReport commitStream(
+            Iterator<byte[]> payloads,
+            int maxInFlight,
+            BiConsumer<byte[], RelpFrameRX> acknowledgements,
+            Consumer<byte[]> failures
+    ) throws IOException, IllegalStateException {
+        failBack();
+        try {
+            return current().commitStream(payloads, maxInFlight, acknowledgements, failures);
+        }
+        catch (IOException e) {
+            targets.get(active).failed();
+            throw e;
+        }
+    }
+
+    /**
+     * Switches to the most preferred target that has passed probes for the stable period, the current connection is
+     * closed only after the new one is open.
+     */
+    private void failBack() {
+        if (!connected || active == 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        for (int index = 0; index < active; index++) {
+            FailoverTarget target = targets.get(index);
+            if (!target.down || !target.stableFor(stableNanos, now)) {
+                continue;
+            }
+            final int standby = active;
+            try {
+                if (connect(index)) {
+                    try {
+                        targets.get(standby).relpConnection.disconnect();
+                    }
+                    catch (IOException | IllegalStateException | TimeoutException e) {
+                        System.err.println("Failed to close standby connection: <" + e.getMessage() + ">");
+                        targets.get(standby).relpConnection.tearDown();
+                    }
+                    return;
+                }
+            }
+            catch (IOException | IllegalStateException | TimeoutException e) {
+                System.err.println("Failed to fail back to target <" + index + ">: <" + e.getMessage() + ">");
+            }
+        }
+    }
+
+    /**
+     * Probes every failed target once with a RELP open and close on a connection of its own.
+     */
+    @Override
+    public void run() {
+        for (FailoverTarget target : targets) {
+            if (!target.down) {
+                continue;
+            }
+            IRelpConnection probe = target.connectionSupplier.get();
+            probe.setConnectionTimeout(target.relpConnection.getConnectionTimeout());
+            probe.setReadTimeout(target.relpConnection.getReadTimeout());
+            probe.setWriteTimeout(target.relpConnection.getWriteTimeout());
+            boolean healthy;
+            try {
+                healthy = probe.connect(probe.relpConfig().relpTarget, probe.relpConfig().relpPort)
+                        && probe.disconnect();
+            }
+            catch (IOException | IllegalStateException | TimeoutException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                target.probeSucceeded(System.nanoTime());
+            }
+            else {
+                probe.tearDown();
+                target.probeFailed();
+            }
+        }
+    }
+
+    @Override
+    public RelpConfig relpConfig() {
+        return current().relpConfig();
+    }
+}
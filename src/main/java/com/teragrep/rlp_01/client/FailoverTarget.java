@@ -0,0 +1,63 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+/**
+ * Target of a {@link FailoverRelpConnection} with its health as last seen by senders and the prober.
+ */
+final class FailoverTarget {
+
+    final Supplier<IRelpConnection> connectionSupplier;
+    final IRelpConnection relpConnection;
+    // set by senders on failure, cleared on a successful connect
+    volatile boolean down;
+    // start of the current run of successful probes, empty when the last probe failed
+    private volatile OptionalLong healthySince;
+
+    FailoverTarget(Supplier<IRelpConnection> connectionSupplier) {
+        this.connectionSupplier = connectionSupplier;
+        this.relpConnection = connectionSupplier.get();
+        this.down = false;
+        this.healthySince = OptionalLong.empty();
+    }
+
+    void failed() {
+        down = true;
+        healthySince = OptionalLong.empty();
+    }
+
+    /**
+     * Starts a run of successful probes, unless one is going on already.
+     */
+    void probeSucceeded(long now) {
+        if (!healthySince.isPresent()) {
+            healthySince = OptionalLong.of(now);
+        }
+    }
+
+    void probeFailed() {
+        healthySince = OptionalLong.empty();
+    }
+
+    boolean stableFor(long stableNanos, long now) {
+        final OptionalLong since = healthySince;
+        return since.isPresent() && now - since.getAsLong() >= stableNanos;
+    }
+}
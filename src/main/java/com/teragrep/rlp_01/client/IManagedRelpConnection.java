@@ -21,6 +21,8 @@ import com.teragrep.stb_01.Stubable;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public interface IManagedRelpConnection extends Stubable, Closeable {
 
@@ -33,4 +35,33 @@ public interface IManagedRelpConnection extends Stubable, Closeable {
     long ensureSent(byte[] bytes);
 
     long ensureSent(RelpBatch relpBatch);
+
+    /**
+     * Sends the bytes like {@link #ensureSent(byte[])} on the executor of the connection.
+     *
+     * @return future completing with the number of attempts required
+     */
+    default CompletableFuture<Long> ensureSentAsync(byte[] bytes) {
+        return CompletableFuture.supplyAsync(() -> ensureSent(bytes), executor());
+    }
+
+    /**
+     * Sends the batch like {@link #ensureSent(RelpBatch)} on the executor of the connection. The batch must not be
+     * touched until the future completes.
+     *
+     * @return future completing with the number of attempts required
+     */
+    default CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+        return CompletableFuture.supplyAsync(() -> ensureSent(relpBatch), executor());
+    }
+
+    /**
+     * Connections without an executor of their own share a single thread, which runs the asynchronous operations of all
+     * of them one at a time.
+     *
+     * @return executor running the asynchronous operations of this connection one at a time
+     */
+    default Executor executor() {
+        return SharedIoThread.EXECUTOR;
+    }
 }
@@ -16,10 +16,27 @@
 */
 package com.teragrep.rlp_01.client;
 
+import com.teragrep.rlp_01.ConnectReport;
+import com.teragrep.rlp_01.HashedWheelTimer;
 import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpConnection;
+import com.teragrep.rlp_01.RelpFrameRX;
+import com.teragrep.rlp_01.RelpStreamException;
+import com.teragrep.rlp_01.RelpStreamReport;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 // TODO refactor RelpConnection into an interface and RelpConnectionImpl and remove this
 public interface IRelpConnection {
@@ -38,6 +55,46 @@ public interface IRelpConnection {
 
     void setKeepAlive(boolean on);
 
+    /**
+     * @return timings of the latest connect, zero durations and empty TLS parameters when not reported
+     */
+    default ConnectReport getConnectReport() {
+        return new ConnectReport(Duration.ZERO, Duration.ZERO, "", "");
+    }
+
+    /**
+     * @return microseconds the socket is busy polled before blocking, 0 when busy polling is disabled
+     */
+    default int getBusyPoll() {
+        return 0;
+    }
+
+    /**
+     * Enables busy polling, connections that do not support it ignore it and block as before.
+     *
+     * @param busyPoll microseconds to busy poll the socket before blocking, 0 disables busy polling
+     */
+    default void setBusyPoll(int busyPoll) {
+        // blocking waits only
+    }
+
+    /**
+     * @return milliseconds a commit may take, 0 when commits have no deadline
+     */
+    default int getCommitTimeout() {
+        return 0;
+    }
+
+    /**
+     * Sets a deadline for commits, connections that do not support deadlines ignore it and commit without one.
+     *
+     * @param timer         timer firing the deadlines
+     * @param commitTimeout milliseconds a commit may take, 0 disables the deadline
+     */
+    default void setCommitTimeout(HashedWheelTimer timer, int commitTimeout) {
+        // no deadline
+    }
+
     int getRxBufferSize();
 
     void setRxBufferSize(int size);
@@ -54,5 +111,145 @@ public interface IRelpConnection {
 
     void commit(RelpBatch relpBatch) throws IOException, IllegalStateException, TimeoutException;
 
+    /**
+     * Streams the payloads of the iterator, see {@link #commitStream(Iterator, int, Consumer)}. The report holds a
+     * sample of the failed payloads, at most {@link RelpConnection#MAX_FAILED_SAMPLE} of them.
+     */
+    default RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        final List<byte[]> sample = new ArrayList<>();
+        final Consumer<byte[]> failures = payload -> {
+            if (sample.size() < RelpConnection.MAX_FAILED_SAMPLE) {
+                sample.add(payload);
+            }
+        };
+        try {
+            RelpStreamReport report = commitStream(payloads, maxInFlight, failures);
+            return new RelpStreamReport(report.sent(), report.acknowledged(), report.failedCount(), sample);
+        }
+        catch (RelpStreamException e) {
+            RelpStreamReport report = e.getReport();
+            throw new RelpStreamException(
+                    e.getMessage(),
+                    e.getCause(),
+                    new RelpStreamReport(report.sent(), report.acknowledged(), report.failedCount(), sample)
+            );
+        }
+    }
+
+    /**
+     * Streams payloads pulled lazily from the supplier, see {@link #commitStream(Iterator, int)}.
+     *
+     * @param payloads    payloads to send, null ends the stream
+     * @param maxInFlight payloads sent without an acknowledgement at most
+     */
+    default RelpStreamReport commitStream(Supplier<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        return commitStream(new Iterator<byte[]>() {
+
+            private byte[] next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = payloads.get();
+                }
+                return next != null;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                byte[] current = next;
+                next = null;
+                return current;
+            }
+        }, maxInFlight);
+    }
+
+    /**
+     * Streams the payloads of the iterator. Connections without a streaming commit send them as consecutive batches of
+     * maxInFlight payloads with {@link #commit(RelpBatch)}, each batch waiting for its acknowledgements before the next
+     * one is pulled. Payloads not acknowledged with 200 are handed to the failure callback.
+     *
+     * @param payloads    payloads to send
+     * @param maxInFlight payloads sent without an acknowledgement at most
+     * @param failures    receives each failed payload, to be sent again by the caller
+     * @return report of the stream, without a sample of the failed payloads
+     * @throws RelpStreamException if a commit fails, with the payloads of its batch counted as failed
+     */
+    default RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight, Consumer<byte[]> failures)
+            throws IOException, IllegalStateException {
+        return commitStream(payloads, maxInFlight, (payload, response) -> {
+        }, failures);
+    }
+
+    /**
+     * Streams the payloads of the iterator like {@link #commitStream(Iterator, int, Consumer)}, handing each payload
+     * acknowledged with 200 to the acknowledgement callback with its response. Connections without a streaming commit
+     * call it once the batch of the payload has been acknowledged.
+     *
+     * @param payloads         payloads to send
+     * @param maxInFlight      payloads sent without an acknowledgement at most
+     * @param acknowledgements receives each acknowledged payload with its response
+     * @param failures         receives each failed payload, to be sent again by the caller
+     * @return report of the stream, without a sample of the failed payloads
+     * @throws RelpStreamException if a commit fails, with the payloads of its batch counted as failed
+     */
+    default RelpStreamReport commitStream(
+            Iterator<byte[]> payloads,
+            int maxInFlight,
+            BiConsumer<byte[], RelpFrameRX> acknowledgements,
+            Consumer<byte[]> failures
+    ) throws IOException, IllegalStateException {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        long sent = 0;
+        long acknowledged = 0;
+        long failed = 0;
+        while (payloads.hasNext()) {
+            final RelpBatch relpBatch = new RelpBatch();
+            final Map<Long, byte[]> batched = new LinkedHashMap<>();
+            while (batched.size() < maxInFlight && payloads.hasNext()) {
+                final byte[] payload = payloads.next();
+                batched.put(relpBatch.insert(payload), payload);
+            }
+            try {
+                commit(relpBatch);
+            }
+            catch (IOException | TimeoutException | IllegalStateException e) {
+                batched.values().forEach(failures);
+                if (e instanceof IllegalStateException) {
+                    throw (IllegalStateException) e;
+                }
+                throw new RelpStreamException(
+                        "Stream failed: " + e.getMessage(),
+                        e,
+                        new RelpStreamReport(
+                                sent + batched.size(),
+                                acknowledged,
+                                failed + batched.size(),
+                                Collections.emptyList()
+                        )
+                );
+            }
+            sent = sent + batched.size();
+            for (Map.Entry<Long, byte[]> entry : batched.entrySet()) {
+                if (relpBatch.verifyTransaction(entry.getKey())) {
+                    acknowledged++;
+                    acknowledgements.accept(entry.getValue(), relpBatch.getResponse(entry.getKey()));
+                }
+                else {
+                    failed++;
+                    failures.accept(entry.getValue());
+                }
+            }
+        }
+        return new RelpStreamReport(sent, acknowledged, failed, Collections.emptyList());
+    }
+
     RelpConfig relpConfig();
 }
@@ -0,0 +1,50 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the target with the fewest batches in flight relative to its weight. Ties are broken round-robin so that idle
+ * targets share the traffic.
+ */
+public final class LeastInFlightTargetSelector implements RelpTargetSelector {
+
+    private final AtomicInteger offset;
+
+    public LeastInFlightTargetSelector() {
+        this.offset = new AtomicInteger();
+    }
+
+    @Override
+    public int select(List<RelpTargetState> targets) {
+        final int start = Math.floorMod(offset.getAndIncrement(), targets.size());
+        int chosen = start;
+        double least = Double.MAX_VALUE;
+        for (int i = 0; i < targets.size(); i++) {
+            int index = (start + i) % targets.size();
+            RelpTargetState state = targets.get(index);
+            double load = (double) state.inFlight() / state.target().weight;
+            if (load < least) {
+                least = load;
+                chosen = index;
+            }
+        }
+        return chosen;
+    }
+}
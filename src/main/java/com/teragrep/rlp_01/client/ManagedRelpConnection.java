@@ -19,16 +19,66 @@ package com.teragrep.rlp_01.client;
 import com.teragrep.rlp_01.RelpBatch;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class ManagedRelpConnection implements IManagedRelpConnection {
 
     private final IRelpConnection relpConnection;
     private boolean hasConnected;
+    private final Executor executor;
+    private final ReconnectBackoff backoff;
 
+    /**
+     * Asynchronous operations run on a thread of the connection's own, which is started when needed and stopped after a
+     * minute of idling.
+     */
     public ManagedRelpConnection(IRelpConnection relpConnection) {
+        this(relpConnection, ioThread());
+    }
+
+    /**
+     * Reconnect attempts are the reconnect interval of the relpConfig apart.
+     *
+     * @param relpConnection connection to manage
+     * @param executor       executor for the asynchronous operations, which are run one at a time
+     */
+    public ManagedRelpConnection(IRelpConnection relpConnection, Executor executor) {
+        this(relpConnection, executor, new ReconnectBackoffFixed(relpConnection.relpConfig().relpReconnectInterval));
+    }
+
+    /**
+     * @param relpConnection connection to manage
+     * @param backoff        wait between reconnect attempts
+     */
+    public ManagedRelpConnection(IRelpConnection relpConnection, ReconnectBackoff backoff) {
+        this(relpConnection, ioThread(), backoff);
+    }
+
+    /**
+     * @param relpConnection connection to manage
+     * @param executor       executor for the asynchronous operations, which are run one at a time
+     * @param backoff        wait between reconnect attempts
+     */
+    public ManagedRelpConnection(IRelpConnection relpConnection, Executor executor, ReconnectBackoff backoff) {
         this.relpConnection = relpConnection;
         this.hasConnected = false;
+        this.executor = new SerialExecutor(executor);
+        this.backoff = backoff;
+    }
+
+    static Executor ioThread() {
+        return new ThreadPoolExecutor(0, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "rlp_01-managed-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -44,14 +94,16 @@ public class ManagedRelpConnection implements IManagedRelpConnection {
     }
 
     /**
-     * Tries to establish a relp connection indefinitely, on failure awaits a configured interval before retry.
+     * Tries to establish a relp connection indefinitely, on failure awaits the backoff delay before retry.
      *
      * @return number of attempts required to connect
+     * @throws IllegalStateException if the thread is interrupted while waiting to retry, the interrupt status is kept
      */
     @Override
     public long connect() {
         boolean connected = false;
         long attempts = 0;
+        long delay = 0;
         while (!connected) {
             try {
                 this.hasConnected = true;
@@ -59,17 +111,18 @@ public class ManagedRelpConnection implements IManagedRelpConnection {
                         .connect(relpConnection.relpConfig().relpTarget, relpConnection.relpConfig().relpPort);
             }
             catch (Exception e) {
-                System.err
-                        .println(
-                                "Failed to connect to relp server <[" + relpConnection.relpConfig().relpTarget + "]>:<["
-                                        + relpConnection.relpConfig().relpPort + "]>: <" + e.getMessage() + ">"
-                        );
+                logConnectFailure(e);
 
+                delay = backoff.delay(attempts + 1, delay);
                 try {
-                    Thread.sleep(relpConnection.relpConfig().relpReconnectInterval);
+                    Thread.sleep(delay);
                 }
                 catch (InterruptedException exception) {
-                    System.err.println("Reconnection timer interrupted, reconnecting now");
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(
+                            "Reconnecting interrupted after <" + (attempts + 1) + "> attempts",
+                            exception
+                    );
                 }
             }
             finally {
@@ -79,6 +132,58 @@ public class ManagedRelpConnection implements IManagedRelpConnection {
         return attempts;
     }
 
+    /**
+     * Tries to establish a relp connection indefinitely like {@link #connect()}, but waits out the backoff delays on
+     * the scheduler instead of a sleeping thread. The attempts run on the executor of the connection, cancel the future
+     * to stop retrying.
+     *
+     * @param scheduler scheduler of the retries
+     * @return number of attempts required to connect
+     */
+    public CompletableFuture<Long> connectAsync(ScheduledExecutorService scheduler) {
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        executor.execute(() -> connectAttempt(scheduler, future, 1, 0));
+        return future;
+    }
+
+    private void connectAttempt(
+            ScheduledExecutorService scheduler,
+            CompletableFuture<Long> future,
+            long attempt,
+            long previousDelay
+    ) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            this.hasConnected = true;
+            if (relpConnection.connect(relpConnection.relpConfig().relpTarget, relpConnection.relpConfig().relpPort)) {
+                future.complete(attempt);
+                return;
+            }
+        }
+        catch (Exception e) {
+            logConnectFailure(e);
+        }
+
+        final long delay = backoff.delay(attempt, previousDelay);
+        try {
+            scheduler
+                    .schedule(() -> executor.execute(() -> connectAttempt(scheduler, future, attempt + 1, delay)), delay, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void logConnectFailure(Exception e) {
+        System.err
+                .println(
+                        "Failed to connect to relp server <[" + relpConnection.relpConfig().relpTarget + "]>:<["
+                                + relpConnection.relpConfig().relpPort + "]>: <" + e.getMessage() + ">"
+                );
+    }
+
     private void tearDown() {
         /*
          TODO remove: wouldn't need a check hasConnected but there is a bug in RLP-01 tearDown()
@@ -133,6 +238,21 @@ public class ManagedRelpConnection implements IManagedRelpConnection {
         return ensureSent(relpBatch);
     }
 
+    @Override
+    public CompletableFuture<Long> ensureSentAsync(byte[] bytes) {
+        return CompletableFuture.supplyAsync(() -> ensureSent(bytes), executor);
+    }
+
+    @Override
+    public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+        return CompletableFuture.supplyAsync(() -> ensureSent(relpBatch), executor);
+    }
+
+    @Override
+    public Executor executor() {
+        return executor;
+    }
+
     @Override
     public boolean isStub() {
         return false;
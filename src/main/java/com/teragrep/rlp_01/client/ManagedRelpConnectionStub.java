@@ -19,6 +19,8 @@ package com.teragrep.rlp_01.client;
 import com.teragrep.rlp_01.RelpBatch;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class ManagedRelpConnectionStub implements IManagedRelpConnection {
 
@@ -47,6 +49,21 @@ public class ManagedRelpConnectionStub implements IManagedRelpConnection {
         throw new IllegalStateException("ManagedRelpConnectionStub does not support this");
     }
 
+    @Override
+    public CompletableFuture<Long> ensureSentAsync(byte[] bytes) {
+        throw new IllegalStateException("ManagedRelpConnectionStub does not support this");
+    }
+
+    @Override
+    public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+        throw new IllegalStateException("ManagedRelpConnectionStub does not support this");
+    }
+
+    @Override
+    public Executor executor() {
+        throw new IllegalStateException("ManagedRelpConnectionStub does not support this");
+    }
+
     @Override
     public boolean isStub() {
         return true;
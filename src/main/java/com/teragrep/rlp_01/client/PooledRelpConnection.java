@@ -0,0 +1,116 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection of a {@link RelpConnectionPool}, claimed by at most one borrower at a time.
+ */
+final class PooledRelpConnection implements IManagedRelpConnection {
+
+    final RelpConnectionPool pool;
+    final IManagedRelpConnection managedRelpConnection;
+    final AtomicBoolean inUse;
+    volatile long lastReturned;
+    volatile long lastBorrower;
+
+    PooledRelpConnection(RelpConnectionPool pool, IManagedRelpConnection managedRelpConnection) {
+        this.pool = pool;
+        this.managedRelpConnection = managedRelpConnection;
+        this.inUse = new AtomicBoolean();
+        this.lastReturned = System.nanoTime();
+        this.lastBorrower = -1;
+    }
+
+    @Override
+    public void reconnect() {
+        managedRelpConnection.reconnect();
+    }
+
+    @Override
+    public long connect() throws IOException {
+        return managedRelpConnection.connect();
+    }
+
+    @Override
+    public void forceReconnect() {
+        managedRelpConnection.forceReconnect();
+    }
+
+    @Override
+    public long ensureSent(byte[] bytes) {
+        final long start = System.nanoTime();
+        try {
+            return managedRelpConnection.ensureSent(bytes);
+        }
+        finally {
+            pool.recordCommit(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public long ensureSent(RelpBatch relpBatch) {
+        final long start = System.nanoTime();
+        try {
+            return managedRelpConnection.ensureSent(relpBatch);
+        }
+        finally {
+            pool.recordCommit(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> ensureSentAsync(byte[] bytes) {
+        final long start = System.nanoTime();
+        return managedRelpConnection
+                .ensureSentAsync(bytes)
+                .whenComplete((attempts, throwable) -> pool.recordCommit(System.nanoTime() - start));
+    }
+
+    @Override
+    public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+        final long start = System.nanoTime();
+        return managedRelpConnection
+                .ensureSentAsync(relpBatch)
+                .whenComplete((attempts, throwable) -> pool.recordCommit(System.nanoTime() - start));
+    }
+
+    @Override
+    public Executor executor() {
+        return managedRelpConnection.executor();
+    }
+
+    @Override
+    public boolean isStub() {
+        return managedRelpConnection.isStub();
+    }
+
+    /**
+     * Closes the connection underneath, it is reopened on the next send. Give the connection back to the pool with
+     * {@link RelpConnectionPool#offer(IManagedRelpConnection)} instead of closing it.
+     */
+    @Override
+    public void close() throws IOException {
+        managedRelpConnection.close();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Draws two different targets at random in proportion to their weights and chooses the one with the lower expected
+ * wait, the moving average of its ack latency times the batches it has in flight. Slow or overloaded targets lose most
+ * of these contests and get less traffic, without every sender piling on the single fastest target.
+ */
+public final class PowerOfTwoChoicesTargetSelector implements RelpTargetSelector {
+
+    private final Supplier<Random> random;
+
+    /**
+     * Draws from {@link ThreadLocalRandom}.
+     */
+    public PowerOfTwoChoicesTargetSelector() {
+        this((Supplier<Random>) ThreadLocalRandom::current);
+    }
+
+    /**
+     * @param random source of the draws
+     */
+    public PowerOfTwoChoicesTargetSelector(Random random) {
+        this(supplier(random));
+    }
+
+    private PowerOfTwoChoicesTargetSelector(Supplier<Random> random) {
+        this.random = random;
+    }
+
+    private static Supplier<Random> supplier(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random must not be null");
+        }
+        return () -> random;
+    }
+
+    @Override
+    public int select(List<RelpTargetState> targets) {
+        if (targets.size() == 1) {
+            return 0;
+        }
+        final Random random = this.random.get();
+        int first = draw(targets, random, -1);
+        int second = draw(targets, random, first);
+        return cost(targets.get(second)) < cost(targets.get(first)) ? second : first;
+    }
+
+    private static int draw(List<RelpTargetState> targets, Random random, int excluded) {
+        int total = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            if (i != excluded) {
+                total += targets.get(i).target().weight;
+            }
+        }
+        int point = random.nextInt(total);
+        for (int i = 0; i < targets.size(); i++) {
+            if (i != excluded) {
+                point -= targets.get(i).target().weight;
+                if (point < 0) {
+                    return i;
+                }
+            }
+        }
+        return targets.size() - 1;
+    }
+
+    private static double cost(RelpTargetState state) {
+        return (state.latencyNanos() + 1) * (state.inFlight() + 1);
+    }
+}
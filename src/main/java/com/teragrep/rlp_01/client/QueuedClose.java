@@ -0,0 +1,102 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Closes connections on their executors, so that each is closed only after the asynchronous operations queued on it
+ * before, and waits for all of them to close. A connection is never closed under a send still running on it.
+ */
+final class QueuedClose implements Closeable {
+
+    private final Collection<IManagedRelpConnection> connections;
+
+    QueuedClose(Collection<IManagedRelpConnection> connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * @throws IOException the latest failure to close a connection, all connections are closed regardless
+     */
+    @Override
+    public void close() throws IOException {
+        final List<CompletableFuture<Void>> closes = new ArrayList<>(connections.size());
+        for (IManagedRelpConnection managedRelpConnection : connections) {
+            closes.add(queue(managedRelpConnection));
+        }
+        IOException failure = null;
+        for (CompletableFuture<Void> closed : closes) {
+            try {
+                closed.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException(
+                        "Interrupted while closing connections"
+                );
+                interrupted.initCause(e);
+                throw interrupted;
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    failure = (IOException) e.getCause();
+                }
+                else {
+                    failure = new IOException("Failed to close connection", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private CompletableFuture<Void> queue(IManagedRelpConnection managedRelpConnection) {
+        final CompletableFuture<Void> closed = new CompletableFuture<>();
+        final Runnable close = () -> {
+            try {
+                managedRelpConnection.close();
+                closed.complete(null);
+            }
+            catch (IOException | RuntimeException e) {
+                closed.completeExceptionally(e);
+            }
+        };
+        if (managedRelpConnection.isStub()) {
+            // stubs have no executor
+            close.run();
+            return closed;
+        }
+        try {
+            managedRelpConnection.executor().execute(close);
+        }
+        catch (RejectedExecutionException e) {
+            // the executor no longer takes work, close here rather than leave the connection open
+            close.run();
+        }
+        return closed;
+    }
+}
@@ -19,6 +19,7 @@ package com.teragrep.rlp_01.client;
 import com.teragrep.rlp_01.RelpBatch;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 public class RebindableRelpConnection implements IManagedRelpConnection {
 
@@ -66,6 +67,11 @@ public class RebindableRelpConnection implements IManagedRelpConnection {
         return resendCount;
     }
 
+    @Override
+    public Executor executor() {
+        return managedRelpConnection.executor();
+    }
+
     @Override
     public boolean isStub() {
         return false;
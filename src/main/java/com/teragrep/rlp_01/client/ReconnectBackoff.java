@@ -0,0 +1,30 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+/**
+ * Policy for the wait between reconnect attempts of a {@link ManagedRelpConnection}.
+ */
+public interface ReconnectBackoff {
+
+    /**
+     * @param attempt       number of failed attempts so far, starting from 1
+     * @param previousDelay delay returned for the previous attempt in milliseconds, 0 before the first
+     * @return milliseconds to wait before the next attempt
+     */
+    long delay(long attempt, long previousDelay);
+}
@@ -0,0 +1,79 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Waits a random time between the base and three times the previous wait, up to a cap. The waits grow about as fast as
+ * exponential ones, but clients that lost their receiver at the same moment soon drift apart instead of all
+ * reconnecting in lockstep.
+ */
+public final class ReconnectBackoffDecorrelatedJitter implements ReconnectBackoff {
+
+    private final long base;
+    private final long cap;
+    private final Supplier<Random> random;
+
+    /**
+     * Draws the jitter from {@link ThreadLocalRandom}.
+     *
+     * @param base shortest wait in milliseconds
+     * @param cap  longest wait in milliseconds
+     */
+    public ReconnectBackoffDecorrelatedJitter(long base, long cap) {
+        this(base, cap, (Supplier<Random>) ThreadLocalRandom::current);
+    }
+
+    /**
+     * @param base   shortest wait in milliseconds
+     * @param cap    longest wait in milliseconds
+     * @param random source of the jitter
+     */
+    public ReconnectBackoffDecorrelatedJitter(long base, long cap, Random random) {
+        this(base, cap, supplier(random));
+    }
+
+    private ReconnectBackoffDecorrelatedJitter(long base, long cap, Supplier<Random> random) {
+        if (base < 1 || cap < base) {
+            throw new IllegalArgumentException("Invalid backoff, base <" + base + "> cap <" + cap + ">");
+        }
+        this.base = base;
+        this.cap = cap;
+        this.random = random;
+    }
+
+    private static Supplier<Random> supplier(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random must not be null");
+        }
+        return () -> random;
+    }
+
+    @Override
+    public long delay(long attempt, long previousDelay) {
+        final long previous = Math.max(base, previousDelay);
+        final long upper = previous > cap / 3 ? cap : previous * 3;
+        if (upper <= base) {
+            return base;
+        }
+        final long jitter = (long) (random.get().nextDouble() * (upper - base + 1));
+        return Math.min(cap, base + jitter);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+/**
+ * Doubles the wait after every failed attempt up to a cap.
+ */
+public final class ReconnectBackoffExponential implements ReconnectBackoff {
+
+    private final long base;
+    private final long cap;
+
+    /**
+     * @param base milliseconds to wait after the first failure
+     * @param cap  longest wait in milliseconds
+     */
+    public ReconnectBackoffExponential(long base, long cap) {
+        if (base < 1 || cap < base) {
+            throw new IllegalArgumentException("Invalid backoff, base <" + base + "> cap <" + cap + ">");
+        }
+        this.base = base;
+        this.cap = cap;
+    }
+
+    @Override
+    public long delay(long attempt, long previousDelay) {
+        final long shift = Math.min(attempt - 1, 62);
+        if (base > (cap >> shift)) {
+            return cap;
+        }
+        return Math.min(cap, base << shift);
+    }
+}
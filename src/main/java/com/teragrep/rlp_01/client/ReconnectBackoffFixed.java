@@ -0,0 +1,37 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+/**
+ * Waits the same interval between all attempts.
+ */
+public final class ReconnectBackoffFixed implements ReconnectBackoff {
+
+    private final long interval;
+
+    /**
+     * @param interval milliseconds between attempts
+     */
+    public ReconnectBackoffFixed(long interval) {
+        this.interval = interval;
+    }
+
+    @Override
+    public long delay(long attempt, long previousDelay) {
+        return interval;
+    }
+}
@@ -16,8 +16,12 @@
 */
 package com.teragrep.rlp_01.client;
 
+import com.teragrep.rlp_01.RelpClientSocket;
 import com.teragrep.rlp_01.RelpConnection;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Supplier;
 
 public class RelpConnectionFactory implements Supplier<IManagedRelpConnection> {
@@ -25,6 +29,9 @@ public class RelpConnectionFactory implements Supplier<IManagedRelpConnection> {
     private final RelpConfig relpConfig;
     private final SocketConfig socketConfig;
     private final SSLContextSupplier sslContextSupplier;
+    private final List<RelpTargetState> targets;
+    private final RelpTargetSelector targetSelector;
+    private final ReconnectBackoff backoff;
 
     public RelpConnectionFactory(RelpConfig relpConfig) {
         this(relpConfig, new SocketConfigDefault());
@@ -42,21 +49,131 @@ public class RelpConnectionFactory implements Supplier<IManagedRelpConnection> {
             RelpConfig relpConfig,
             SocketConfig socketConfig,
             SSLContextSupplier sslContextSupplier
+    ) {
+        this(relpConfig, Collections.emptyList(), new RoundRobinTargetSelector(), socketConfig, sslContextSupplier);
+    }
+
+    public RelpConnectionFactory(RelpConfig relpConfig, List<RelpTarget> targets, RelpTargetSelector targetSelector) {
+        this(relpConfig, targets, targetSelector, new SocketConfigDefault(), new SSLContextSupplierStub());
+    }
+
+    /**
+     * Factory of connections spread over several targets, each connection holds one session per target and sends every
+     * batch to the target chosen by the selector. The relpTarget and relpPort of the relpConfig are not used when
+     * targets are given.
+     *
+     * @param relpConfig         settings shared by all targets
+     * @param targets            weighted targets, empty to connect to the relpTarget of the relpConfig only
+     * @param targetSelector     chooses the target of each batch, such as {@link RoundRobinTargetSelector},
+     *                           {@link LeastInFlightTargetSelector} or {@link PowerOfTwoChoicesTargetSelector}
+     * @param socketConfig       socket settings shared by all targets
+     * @param sslContextSupplier TLS context shared by all targets
+     */
+    public RelpConnectionFactory(
+            RelpConfig relpConfig,
+            List<RelpTarget> targets,
+            RelpTargetSelector targetSelector,
+            SocketConfig socketConfig,
+            SSLContextSupplier sslContextSupplier
+    ) {
+        this(
+                relpConfig,
+                targets,
+                targetSelector,
+                socketConfig,
+                sslContextSupplier,
+                new ReconnectBackoffFixed(relpConfig.relpReconnectInterval)
+        );
+    }
+
+    /**
+     * @param relpConfig         settings shared by all targets
+     * @param targets            weighted targets, empty to connect to the relpTarget of the relpConfig only
+     * @param targetSelector     chooses the target of each batch
+     * @param socketConfig       socket settings shared by all targets
+     * @param sslContextSupplier TLS context of each connect, wrap it in {@link SSLContextSupplierCached} to share one
+     *                           context and its session cache between reconnects
+     * @param backoff            wait between reconnect attempts, such as {@link ReconnectBackoffDecorrelatedJitter} to
+     *                           keep clients from reconnecting in lockstep
+     */
+    public RelpConnectionFactory(
+            RelpConfig relpConfig,
+            List<RelpTarget> targets,
+            RelpTargetSelector targetSelector,
+            SocketConfig socketConfig,
+            SSLContextSupplier sslContextSupplier,
+            ReconnectBackoff backoff
     ) {
         this.relpConfig = relpConfig;
         this.socketConfig = socketConfig;
         this.sslContextSupplier = sslContextSupplier;
+        // connections share the target load, so that the selector sees the traffic of the whole factory
+        this.targets = new ArrayList<>();
+        for (RelpTarget target : targets) {
+            this.targets.add(new RelpTargetState(target));
+        }
+        this.targetSelector = targetSelector;
+        this.backoff = backoff;
+    }
+
+    /**
+     * @return load of each target, empty for a single target factory
+     */
+    public List<RelpTargetState> targets() {
+        return Collections.unmodifiableList(targets);
     }
 
     @Override
     public IManagedRelpConnection get() {
+        if (targets.isEmpty()) {
+            return create(relpConfig);
+        }
+        List<IRelpConnection> connections = new ArrayList<>(targets.size());
+        for (RelpTargetState state : targets) {
+            connections
+                    .add(
+                            relpConnection(
+                                    new RelpConfig(
+                                            state.target().relpTarget,
+                                            state.target().relpPort,
+                                            relpConfig.relpReconnectInterval,
+                                            relpConfig.rebindRequestAmount,
+                                            relpConfig.rebindEnabled,
+                                            relpConfig.maxIdle,
+                                            relpConfig.maxIdleEnabled
+                                    )
+                            )
+                    );
+        }
+        return decorate(new BalancedRelpConnection(targets, connections, targetSelector, backoff), relpConfig);
+    }
+
+    private IManagedRelpConnection create(RelpConfig relpConfig) {
+        return decorate(new ManagedRelpConnection(relpConnection(relpConfig), backoff), relpConfig);
+    }
+
+    private IRelpConnection relpConnection(RelpConfig relpConfig) {
         IRelpConnection relpConnection;
-        if (sslContextSupplier.isStub()) {
+        if (relpConfig.relpTarget.startsWith(RelpClientSocket.UNIX_SOCKET_PREFIX)) {
+            // local server listening on a Unix domain socket, relpTarget carries the path
+            if (!sslContextSupplier.isStub()) {
+                throw new IllegalArgumentException("TLS is not supported over Unix domain sockets");
+            }
+            relpConnection = new RelpConnectionWithConfig(
+                    new RelpConnection(RelpClientSocket.unixSocket()),
+                    relpConfig
+            );
+        }
+        else if (sslContextSupplier.isStub()) {
             relpConnection = new RelpConnectionWithConfig(new RelpConnection(), relpConfig);
         }
         else {
             relpConnection = new RelpConnectionWithConfig(
-                    new RelpConnection(() -> sslContextSupplier.get().createSSLEngine()),
+                    new RelpConnection(
+                            address -> sslContextSupplier
+                                    .get()
+                                    .createSSLEngine(address.getHostString(), address.getPort())
+                    ),
                     relpConfig
             );
         }
@@ -65,9 +182,11 @@ public class RelpConnectionFactory implements Supplier<IManagedRelpConnection> {
         relpConnection.setWriteTimeout(socketConfig.writeTimeout());
         relpConnection.setConnectionTimeout(socketConfig.connectTimeout());
         relpConnection.setKeepAlive(socketConfig.keepAlive());
+        relpConnection.setBusyPoll(socketConfig.busyPoll());
+        return relpConnection;
+    }
 
-        IManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(relpConnection);
-
+    private IManagedRelpConnection decorate(IManagedRelpConnection managedRelpConnection, RelpConfig relpConfig) {
         if (relpConfig.rebindEnabled) {
             managedRelpConnection = new RebindableRelpConnection(managedRelpConnection, relpConfig.rebindRequestAmount);
         }
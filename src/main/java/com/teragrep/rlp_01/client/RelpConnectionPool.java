@@ -0,0 +1,545 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pool of {@link IManagedRelpConnection}s, usually created by a {@link RelpConnectionFactory}.
+ * <p>
+ * The pool holds between minSize and maxSize connections. Borrowing with {@link #get()} first tries the connection the
+ * calling thread used last, then any idle connection, then opens a new one if the pool is not full and otherwise waits
+ * for a connection to be offered back. Every borrowed connection is checked with the health check and replaced when it
+ * fails. Connections idle for longer than maxIdle are closed down to minSize by {@link #evictIdle()}, which is also run
+ * whenever a connection is offered back.
+ * <p>
+ * The number of connections may be limited further at runtime with {@link #setLimit(int)}, for example by a
+ * {@link RelpConnectionPoolScaler}.
+ */
+public final class RelpConnectionPool implements Closeable {
+
+    private final Supplier<IManagedRelpConnection> connectionSupplier;
+    private final int minSize;
+    private final int maxSize;
+    private volatile int limit;
+    private final long maxIdleNanos;
+    private final Predicate<IManagedRelpConnection> healthCheck;
+
+    private final CopyOnWriteArrayList<PooledRelpConnection> connections;
+    private final AtomicInteger size;
+    private final Object returned;
+    private final AtomicBoolean closed;
+    private final AtomicInteger waiting;
+
+    private final AtomicLong borrows;
+    private final AtomicLong waits;
+    private final AtomicLong waitNanosTotal;
+    private final AtomicLong waitNanosMax;
+    private final AtomicLong affinityHits;
+    private final AtomicLong healthCheckFailures;
+    private final AtomicLong evictions;
+    private final AtomicLong commits;
+    private final AtomicLong commitNanosTotal;
+
+    /**
+     * Pool of at most 8 connections, none kept open when idle for 5 minutes, connections are not health checked.
+     *
+     * @param connectionSupplier supplier of new connections, such as {@link RelpConnectionFactory}
+     */
+    public RelpConnectionPool(Supplier<IManagedRelpConnection> connectionSupplier) {
+        this(connectionSupplier, 0, 8, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Connections are not health checked: the default check only rejects stubs, a connection that the server has closed
+     * is lent out as is and reconnects on its first failed commit. Use
+     * {@link #RelpConnectionPool(Supplier, int, int, Duration, Predicate)} to detect broken connections on borrow.
+     *
+     * @param connectionSupplier supplier of new connections, such as {@link RelpConnectionFactory}
+     * @param minSize            number of connections opened by {@link #warmUp()} and kept over idle eviction
+     * @param maxSize            maximum number of connections, borrowers wait when all of them are in use
+     * @param maxIdle            time a connection may stay idle before it is closed
+     */
+    public RelpConnectionPool(
+            Supplier<IManagedRelpConnection> connectionSupplier,
+            int minSize,
+            int maxSize,
+            Duration maxIdle
+    ) {
+        this(connectionSupplier, minSize, maxSize, maxIdle, connection -> !connection.isStub());
+    }
+
+    /**
+     * @param connectionSupplier supplier of new connections, such as {@link RelpConnectionFactory}
+     * @param minSize            number of connections opened by {@link #warmUp()} and kept over idle eviction
+     * @param maxSize            maximum number of connections, borrowers wait when all of them are in use
+     * @param maxIdle            time a connection may stay idle before it is closed
+     * @param healthCheck        check run on every borrow, a connection that fails it is closed and replaced
+     */
+    public RelpConnectionPool(
+            Supplier<IManagedRelpConnection> connectionSupplier,
+            int minSize,
+            int maxSize,
+            Duration maxIdle,
+            Predicate<IManagedRelpConnection> healthCheck
+    ) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException(
+                    "Invalid pool size, minSize <" + minSize + "> maxSize <" + maxSize + ">"
+            );
+        }
+        this.connectionSupplier = connectionSupplier;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.limit = maxSize;
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.healthCheck = healthCheck;
+        this.connections = new CopyOnWriteArrayList<>();
+        this.size = new AtomicInteger();
+        this.returned = new Object();
+        this.closed = new AtomicBoolean();
+        this.waiting = new AtomicInteger();
+        this.borrows = new AtomicLong();
+        this.waits = new AtomicLong();
+        this.waitNanosTotal = new AtomicLong();
+        this.waitNanosMax = new AtomicLong();
+        this.affinityHits = new AtomicLong();
+        this.healthCheckFailures = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.commits = new AtomicLong();
+        this.commitNanosTotal = new AtomicLong();
+    }
+
+    /**
+     * Opens connections until the pool has minSize of them, so that the first borrowers do not pay for connecting.
+     * Blocks like {@link IManagedRelpConnection#connect()} until every connection is established.
+     */
+    public void warmUp() {
+        while (!closed.get() && size.get() < minSize) {
+            PooledRelpConnection pooled = open();
+            if (pooled == null) {
+                return;
+            }
+            try {
+                pooled.connect();
+            }
+            catch (Exception e) {
+                System.err.println("Failed to warm up pooled connection: <" + e.getMessage() + ">");
+                discard(pooled);
+                return;
+            }
+            release(pooled);
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting as long as it takes for one to become available. Returns a
+     * {@link ManagedRelpConnectionStub} when the pool is closed.
+     *
+     * @return connection to be given back with {@link #offer(IManagedRelpConnection)}
+     */
+    public IManagedRelpConnection get() {
+        try {
+            return get(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException e) {
+            throw new IllegalStateException("Unbounded borrow timed out", e);
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting at most the given time for one to become available. Returns a
+     * {@link ManagedRelpConnectionStub} when the pool is closed.
+     *
+     * @return connection to be given back with {@link #offer(IManagedRelpConnection)}
+     * @throws TimeoutException if all connections stayed in use for the whole timeout
+     */
+    public IManagedRelpConnection get(long timeout, TimeUnit unit) throws TimeoutException {
+        final long start = System.nanoTime();
+        final long timeoutNanos = unit.toNanos(timeout);
+        boolean waited = false;
+        while (!closed.get()) {
+            PooledRelpConnection pooled = claim();
+            if (pooled == null) {
+                pooled = open();
+            }
+            if (pooled != null) {
+                if (!healthy(pooled)) {
+                    discard(pooled);
+                    continue;
+                }
+                pooled.lastBorrower = Thread.currentThread().getId();
+                record(System.nanoTime() - start, waited);
+                return pooled;
+            }
+
+            long remaining = timeoutNanos - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                record(System.nanoTime() - start, true);
+                throw new TimeoutException("No pooled connection available within <" + unit.toMillis(timeout) + "> ms");
+            }
+            waited = true;
+            synchronized (returned) {
+                if (!hasIdle() && size.get() >= limit && !closed.get()) {
+                    waiting.incrementAndGet();
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(returned, remaining);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for a pooled connection", e);
+                    }
+                    finally {
+                        waiting.decrementAndGet();
+                    }
+                }
+            }
+        }
+        return new ManagedRelpConnectionStub();
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool. Stubs are ignored, connections from other sources are closed.
+     *
+     * @param managedRelpConnection connection from {@link #get()}
+     */
+    public void offer(IManagedRelpConnection managedRelpConnection) {
+        if (managedRelpConnection.isStub()) {
+            return;
+        }
+        if (
+            !(managedRelpConnection instanceof PooledRelpConnection)
+                    || ((PooledRelpConnection) managedRelpConnection).pool != this
+        ) {
+            closeQuietly(managedRelpConnection);
+            return;
+        }
+        PooledRelpConnection pooled = (PooledRelpConnection) managedRelpConnection;
+        if (closed.get() || size.get() > limit) {
+            discard(pooled);
+            return;
+        }
+        release(pooled);
+        evictIdle();
+    }
+
+    /**
+     * Closes connections that have been idle for longer than maxIdle, as long as more than minSize remain.
+     *
+     * @return number of connections closed
+     */
+    public int evictIdle() {
+        final long now = System.nanoTime();
+        int evicted = 0;
+        for (PooledRelpConnection pooled : connections) {
+            if (size.get() <= minSize) {
+                break;
+            }
+            if (now - pooled.lastReturned > maxIdleNanos && pooled.inUse.compareAndSet(false, true)) {
+                if (now - pooled.lastReturned > maxIdleNanos) {
+                    discard(pooled);
+                    evictions.incrementAndGet();
+                    evicted++;
+                }
+                else {
+                    pooled.inUse.set(false);
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Limits the number of connections to a value between minSize and maxSize. Lowering the limit closes idle
+     * connections above it at once, connections in use are closed when offered back. Raising it lets waiting borrowers
+     * open new connections.
+     *
+     * @param limit maximum number of connections from now on
+     */
+    public void setLimit(int limit) {
+        this.limit = Math.max(Math.max(minSize, 1), Math.min(maxSize, limit));
+        for (PooledRelpConnection pooled : connections) {
+            if (size.get() <= this.limit) {
+                break;
+            }
+            if (pooled.inUse.compareAndSet(false, true)) {
+                discard(pooled);
+            }
+        }
+        synchronized (returned) {
+            returned.notifyAll();
+        }
+    }
+
+    /**
+     * Closes idle connections and stops lending new ones, connections in use are closed when offered back.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            for (PooledRelpConnection pooled : connections) {
+                if (pooled.inUse.compareAndSet(false, true)) {
+                    discard(pooled);
+                }
+            }
+            synchronized (returned) {
+                returned.notifyAll();
+            }
+        }
+    }
+
+    private PooledRelpConnection claim() {
+        // the connection this thread gave back last, kept on the connections so nothing outlives the thread
+        final long borrower = Thread.currentThread().getId();
+        PooledRelpConnection last = null;
+        for (PooledRelpConnection pooled : connections) {
+            if (
+                pooled.lastBorrower == borrower && !pooled.inUse.get()
+                        && (last == null || pooled.lastReturned - last.lastReturned > 0)
+            ) {
+                last = pooled;
+            }
+        }
+        if (last != null && last.inUse.compareAndSet(false, true)) {
+            affinityHits.incrementAndGet();
+            return last;
+        }
+        for (PooledRelpConnection pooled : connections) {
+            if (pooled.inUse.compareAndSet(false, true)) {
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    private PooledRelpConnection open() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= limit) {
+                return null;
+            }
+        }
+        while (!size.compareAndSet(current, current + 1));
+
+        try {
+            PooledRelpConnection pooled = new PooledRelpConnection(this, connectionSupplier.get());
+            pooled.inUse.set(true);
+            connections.add(pooled);
+            return pooled;
+        }
+        catch (RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean healthy(PooledRelpConnection pooled) {
+        try {
+            if (healthCheck.test(pooled.managedRelpConnection)) {
+                return true;
+            }
+        }
+        catch (RuntimeException e) {
+            System.err.println("Health check of pooled connection failed: <" + e.getMessage() + ">");
+        }
+        healthCheckFailures.incrementAndGet();
+        return false;
+    }
+
+    private void release(PooledRelpConnection pooled) {
+        pooled.lastReturned = System.nanoTime();
+        pooled.inUse.set(false);
+        synchronized (returned) {
+            returned.notify();
+        }
+    }
+
+    private void discard(PooledRelpConnection pooled) {
+        if (connections.remove(pooled)) {
+            size.decrementAndGet();
+        }
+        closeQuietly(pooled.managedRelpConnection);
+        synchronized (returned) {
+            returned.notify();
+        }
+    }
+
+    private boolean hasIdle() {
+        for (PooledRelpConnection pooled : connections) {
+            if (!pooled.inUse.get()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(long waitNanos, boolean waited) {
+        borrows.incrementAndGet();
+        if (waited) {
+            waits.incrementAndGet();
+        }
+        waitNanosTotal.addAndGet(waitNanos);
+        long max;
+        do {
+            max = waitNanosMax.get();
+        }
+        while (waitNanos > max && !waitNanosMax.compareAndSet(max, waitNanos));
+    }
+
+    void recordCommit(long commitNanos) {
+        commits.incrementAndGet();
+        commitNanosTotal.addAndGet(commitNanos);
+    }
+
+    private static void closeQuietly(IManagedRelpConnection managedRelpConnection) {
+        try {
+            managedRelpConnection.close();
+        }
+        catch (Exception e) {
+            System.err.println("Failed to close pooled connection: <" + e.getMessage() + ">");
+        }
+    }
+
+    /**
+     * @return number of open connections, in use or idle
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return current limit of connections, maxSize unless lowered with {@link #setLimit(int)}
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of borrowers currently waiting for a connection
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * @return number of connections currently borrowed
+     */
+    public int getActive() {
+        int active = 0;
+        for (PooledRelpConnection pooled : connections) {
+            if (pooled.inUse.get()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * @return number of connections currently waiting in the pool
+     */
+    public int getIdle() {
+        return connections.size() - getActive();
+    }
+
+    /**
+     * @return number of successful and timed out borrows
+     */
+    public long getBorrows() {
+        return borrows.get();
+    }
+
+    /**
+     * @return number of borrows that had to wait for a connection to be offered back
+     */
+    public long getWaits() {
+        return waits.get();
+    }
+
+    /**
+     * @return total time spent in {@link #get()} by all borrowers
+     */
+    public Duration getWaitTimeTotal() {
+        return Duration.ofNanos(waitNanosTotal.get());
+    }
+
+    /**
+     * @return longest time a single borrower spent in {@link #get()}
+     */
+    public Duration getWaitTimeMax() {
+        return Duration.ofNanos(waitNanosMax.get());
+    }
+
+    /**
+     * @return number of borrows served by the connection the borrowing thread used last
+     */
+    public long getAffinityHits() {
+        return affinityHits.get();
+    }
+
+    /**
+     * @return number of borrowed connections that failed the health check and were replaced
+     */
+    public long getHealthCheckFailures() {
+        return healthCheckFailures.get();
+    }
+
+    /**
+     * @return number of connections closed for being idle too long
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return number of sends completed on pooled connections
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * @return total time spent in sends on pooled connections, including retries
+     */
+    public Duration getCommitTimeTotal() {
+        return Duration.ofNanos(commitNanosTotal.get());
+    }
+
+    @Override
+    public String toString() {
+        return "RelpConnectionPool{" + "size=" + getSize() + ", limit=" + getLimit() + ", active=" + getActive()
+                + ", borrows=" + getBorrows() + ", waits=" + getWaits() + ", waitTimeTotal=" + getWaitTimeTotal()
+                + ", waitTimeMax=" + getWaitTimeMax() + '}';
+    }
+}
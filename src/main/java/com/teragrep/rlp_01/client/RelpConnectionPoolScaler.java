@@ -0,0 +1,150 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Adjusts the connection limit of a {@link RelpConnectionPool} to the load, one connection at a time.
+ * <p>
+ * Each {@link #run()} samples the queue depth, which is the given supplier plus the borrowers waiting on the pool, and
+ * the mean commit latency of the pooled connections since the previous run. The limit is raised when either is above
+ * its scale up threshold and lowered when both are below their scale down thresholds, in both cases only after the
+ * condition has held for the configured number of consecutive runs. Samples between the thresholds reset both counters,
+ * so the limit does not flap around a single value. A run without commits while connections are borrowed has no latency
+ * to go by, the borrowers may be stalled on an unreachable server, so it does not count towards scaling down.
+ * <p>
+ * Meant to be run periodically from a single thread, for example with
+ * {@link java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate(Runnable, long, long, java.util.concurrent.TimeUnit)}.
+ * The pool limit is left as it is until the first change, lower it with {@link RelpConnectionPool#setLimit(int)} to
+ * start from a small pool.
+ */
+public final class RelpConnectionPoolScaler implements Runnable {
+
+    private final RelpConnectionPool pool;
+    private final LongSupplier queueDepth;
+    private final long scaleUpDepth;
+    private final long scaleDownDepth;
+    private final long scaleUpLatencyNanos;
+    private final long scaleDownLatencyNanos;
+    private final int scaleUpRuns;
+    private final int scaleDownRuns;
+
+    private int highRuns;
+    private int lowRuns;
+    private long lastCommits;
+    private long lastCommitNanos;
+
+    /**
+     * Scales on waiting borrowers and commit latency only.
+     *
+     * @param pool pool to scale
+     */
+    public RelpConnectionPoolScaler(RelpConnectionPool pool) {
+        this(pool, () -> 0);
+    }
+
+    /**
+     * Scales up when the queue is deeper than 1 or commits take over 100 ms for 3 runs, scales down when the queue is
+     * empty and commits take under 20 ms for 10 runs.
+     *
+     * @param pool       pool to scale
+     * @param queueDepth depth of the queue the pooled connections are sending from, such as
+     *                   {@link AsyncRelpSender#pending()}
+     */
+    public RelpConnectionPoolScaler(RelpConnectionPool pool, LongSupplier queueDepth) {
+        this(pool, queueDepth, 1, 0, Duration.ofMillis(100), Duration.ofMillis(20), 3, 10);
+    }
+
+    /**
+     * @param pool             pool to scale
+     * @param queueDepth       depth of the queue the pooled connections are sending from
+     * @param scaleUpDepth     queue depth above which connections are added
+     * @param scaleDownDepth   queue depth at or below which connections may be retired
+     * @param scaleUpLatency   mean commit latency above which connections are added
+     * @param scaleDownLatency mean commit latency below which connections may be retired
+     * @param scaleUpRuns      consecutive runs over a scale up threshold before a connection is added
+     * @param scaleDownRuns    consecutive runs under both scale down thresholds before a connection is retired
+     */
+    public RelpConnectionPoolScaler(
+            RelpConnectionPool pool,
+            LongSupplier queueDepth,
+            long scaleUpDepth,
+            long scaleDownDepth,
+            Duration scaleUpLatency,
+            Duration scaleDownLatency,
+            int scaleUpRuns,
+            int scaleDownRuns
+    ) {
+        if (scaleDownDepth >= scaleUpDepth || scaleDownLatency.compareTo(scaleUpLatency) >= 0) {
+            throw new IllegalArgumentException("Scale down thresholds must be below scale up thresholds");
+        }
+        if (scaleUpRuns < 1 || scaleDownRuns < 1) {
+            throw new IllegalArgumentException("Scaling requires at least one run");
+        }
+        this.pool = pool;
+        this.queueDepth = queueDepth;
+        this.scaleUpDepth = scaleUpDepth;
+        this.scaleDownDepth = scaleDownDepth;
+        this.scaleUpLatencyNanos = scaleUpLatency.toNanos();
+        this.scaleDownLatencyNanos = scaleDownLatency.toNanos();
+        this.scaleUpRuns = scaleUpRuns;
+        this.scaleDownRuns = scaleDownRuns;
+        this.highRuns = 0;
+        this.lowRuns = 0;
+        this.lastCommits = pool.getCommits();
+        this.lastCommitNanos = pool.getCommitTimeTotal().toNanos();
+    }
+
+    @Override
+    public void run() {
+        final long depth = queueDepth.getAsLong() + pool.getWaiting();
+        final long commits = pool.getCommits();
+        final long commitNanos = pool.getCommitTimeTotal().toNanos();
+        final boolean sampled = commits > lastCommits;
+        final long latency = sampled ? (commitNanos - lastCommitNanos) / (commits - lastCommits) : 0;
+        final boolean stalled = !sampled && pool.getActive() > 0;
+        lastCommits = commits;
+        lastCommitNanos = commitNanos;
+
+        if (depth > scaleUpDepth || latency > scaleUpLatencyNanos) {
+            lowRuns = 0;
+            highRuns++;
+            if (highRuns >= scaleUpRuns) {
+                highRuns = 0;
+                if (pool.getLimit() < pool.getMaxSize()) {
+                    pool.setLimit(pool.getLimit() + 1);
+                }
+            }
+        }
+        else if (!stalled && depth <= scaleDownDepth && latency < scaleDownLatencyNanos) {
+            highRuns = 0;
+            lowRuns++;
+            if (lowRuns >= scaleDownRuns) {
+                lowRuns = 0;
+                if (pool.getLimit() > pool.getMinSize()) {
+                    pool.setLimit(pool.getLimit() - 1);
+                }
+            }
+        }
+        else {
+            highRuns = 0;
+            lowRuns = 0;
+        }
+    }
+}
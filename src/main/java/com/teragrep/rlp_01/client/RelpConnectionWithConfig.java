@@ -16,11 +16,19 @@
 */
 package com.teragrep.rlp_01.client;
 
+import com.teragrep.rlp_01.ConnectReport;
+import com.teragrep.rlp_01.HashedWheelTimer;
 import com.teragrep.rlp_01.RelpBatch;
 import com.teragrep.rlp_01.RelpConnection;
+import com.teragrep.rlp_01.RelpFrameRX;
+import com.teragrep.rlp_01.RelpStreamReport;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class RelpConnectionWithConfig implements IRelpConnection {
 
@@ -67,6 +75,31 @@ public class RelpConnectionWithConfig implements IRelpConnection {
         relpConnection.setKeepAlive(on);
     }
 
+    @Override
+    public ConnectReport getConnectReport() {
+        return relpConnection.getConnectReport();
+    }
+
+    @Override
+    public int getBusyPoll() {
+        return relpConnection.getBusyPoll();
+    }
+
+    @Override
+    public void setBusyPoll(int busyPoll) {
+        relpConnection.setBusyPoll(busyPoll);
+    }
+
+    @Override
+    public int getCommitTimeout() {
+        return relpConnection.getCommitTimeout();
+    }
+
+    @Override
+    public void setCommitTimeout(HashedWheelTimer timer, int commitTimeout) {
+        relpConnection.setCommitTimeout(timer, commitTimeout);
+    }
+
     @Override
     public int getRxBufferSize() {
         return relpConnection.getRxBufferSize();
@@ -107,6 +140,34 @@ public class RelpConnectionWithConfig implements IRelpConnection {
         relpConnection.commit(relpBatch);
     }
 
+    @Override
+    public RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        return relpConnection.commitStream(payloads, maxInFlight);
+    }
+
+    @Override
+    public RelpStreamReport commitStream(Supplier<byte[]> payloads, int maxInFlight)
+            throws IOException, IllegalStateException {
+        return relpConnection.commitStream(payloads, maxInFlight);
+    }
+
+    @Override
+    public RelpStreamReport commitStream(Iterator<byte[]> payloads, int maxInFlight, Consumer<byte[]> failures)
+            throws IOException, IllegalStateException {
+        return relpConnection.commitStream(payloads, maxInFlight, failures);
+    }
+
+    @Override
+    public RelpStreamReport commitStream(
+            Iterator<byte[]> payloads,
+            int maxInFlight,
+            BiConsumer<byte[], RelpFrameRX> acknowledgements,
+            Consumer<byte[]> failures
+    ) throws IOException, IllegalStateException {
+        return relpConnection.commitStream(payloads, maxInFlight, acknowledgements, failures);
+    }
+
     @Override
     public RelpConfig relpConfig() {
         return relpConfig;
@@ -0,0 +1,139 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routes records by key onto a set of connections with a {@link ConsistentHashRing}, all records of a key go to the
+ * same connection and are sent one after another on its executor, which keeps them in order at the receiver.
+ * <p>
+ * Connections can be added and removed while records are being routed, only the keys of the changed connection move.
+ * Records already handed to a removed connection are still sent by it, so the order of a moved key holds only from the
+ * records routed after the change.
+ */
+public class RelpKeyRouter implements Closeable {
+
+    private volatile Routes routes;
+
+    /**
+     * @param connections connections by target name, such as "host:port"
+     */
+    public RelpKeyRouter(Map<String, IManagedRelpConnection> connections) {
+        this(connections, 160);
+    }
+
+    /**
+     * @param connections  connections by target name, such as "host:port"
+     * @param virtualNodes points each connection has on the ring
+     */
+    public RelpKeyRouter(Map<String, IManagedRelpConnection> connections, int virtualNodes) {
+        this.routes = new Routes(
+                new ConsistentHashRing(connections.keySet(), virtualNodes),
+                new LinkedHashMap<>(connections)
+        );
+    }
+
+    /**
+     * @param key key of the records, such as the syslog HOSTNAME
+     * @return connection the records of the key go to
+     */
+    public IManagedRelpConnection route(String key) {
+        final Routes routes = this.routes;
+        return routes.connections.get(routes.ring.node(key));
+    }
+
+    /**
+     * Sends a record on the connection of its key, after the records of the same key sent before it.
+     */
+    public CompletableFuture<Long> ensureSentAsync(String key, byte[] bytes) {
+        return route(key).ensureSentAsync(bytes);
+    }
+
+    public CompletableFuture<Long> ensureSentAsync(String key, RelpBatch relpBatch) {
+        return route(key).ensureSentAsync(relpBatch);
+    }
+
+    /**
+     * Sends a record on the connection of its key and waits until it is acknowledged.
+     *
+     * @return number of attempts required to commit
+     */
+    public long ensureSent(String key, byte[] bytes) {
+        return ensureSentAsync(key, bytes).join();
+    }
+
+    public long ensureSent(String key, RelpBatch relpBatch) {
+        return ensureSentAsync(key, relpBatch).join();
+    }
+
+    /**
+     * Adds a connection to the ring, it takes over about 1/n of the keys from the others.
+     */
+    public synchronized void add(String name, IManagedRelpConnection managedRelpConnection) {
+        if (routes.connections.containsKey(name)) {
+            throw new IllegalArgumentException("Target <" + name + "> is already routed to");
+        }
+        Map<String, IManagedRelpConnection> added = new LinkedHashMap<>(routes.connections);
+        added.put(name, managedRelpConnection);
+        routes = new Routes(routes.ring.with(name), added);
+    }
+
+    /**
+     * Removes a connection from the ring, its keys move to the other connections. The connection is not closed, close
+     * it once the records already handed to it have been sent.
+     *
+     * @return removed connection, null if there was none by the name
+     */
+    public synchronized IManagedRelpConnection remove(String name) {
+        if (!routes.connections.containsKey(name)) {
+            return null;
+        }
+        Map<String, IManagedRelpConnection> removed = new LinkedHashMap<>(routes.connections);
+        IManagedRelpConnection managedRelpConnection = removed.remove(name);
+        routes = new Routes(routes.ring.without(name), removed);
+        return managedRelpConnection;
+    }
+
+    /**
+     * Closes the connections once the records already routed to them have been sent, and waits for them to close.
+     */
+    @Override
+    public void close() throws IOException {
+        new QueuedClose(routes.connections.values()).close();
+    }
+
+    /**
+     * Ring and the connections of its nodes, replaced together so that routing needs no lock.
+     */
+    private static final class Routes {
+
+        private final ConsistentHashRing ring;
+        private final Map<String, IManagedRelpConnection> connections;
+
+        private Routes(ConsistentHashRing ring, Map<String, IManagedRelpConnection> connections) {
+            this.ring = ring;
+            this.connections = connections;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Progress of one batch sent by a {@link ReplicatingRelpSender}. {@link #quorum()} completes once every frame has been
+ * acknowledged by the quorum of targets, {@link #replicated()} once every target has acknowledged every frame.
+ */
+public final class RelpReplication {
+
+    private final int frames;
+    private final int targets;
+    private final int quorum;
+    private final AtomicIntegerArray acks;
+    private final AtomicInteger framesBelowQuorum;
+    private final AtomicInteger targetsDone;
+    private final AtomicInteger targetsFailed;
+    private final CompletableFuture<Void> quorumFuture;
+    private final CompletableFuture<Void> replicatedFuture;
+
+    RelpReplication(int frames, int targets, int quorum) {
+        this.frames = frames;
+        this.targets = targets;
+        this.quorum = quorum;
+        this.acks = new AtomicIntegerArray(frames);
+        this.framesBelowQuorum = new AtomicInteger(frames);
+        this.targetsDone = new AtomicInteger();
+        this.targetsFailed = new AtomicInteger();
+        this.quorumFuture = new CompletableFuture<>();
+        this.replicatedFuture = new CompletableFuture<>();
+        if (frames == 0) {
+            quorumFuture.complete(null);
+            replicatedFuture.complete(null);
+        }
+    }
+
+    /**
+     * @return completes when each frame has been acknowledged by at least the quorum of targets, or exceptionally when
+     *         too many targets failed for that to happen
+     */
+    public CompletableFuture<Void> quorum() {
+        return quorumFuture;
+    }
+
+    /**
+     * @return completes when all targets have acknowledged all frames, or exceptionally when any target failed
+     */
+    public CompletableFuture<Void> replicated() {
+        return replicatedFuture;
+    }
+
+    /**
+     * @param frame index of the frame in the batch
+     * @return number of targets that have acknowledged the frame
+     */
+    public int acks(int frame) {
+        return acks.get(frame);
+    }
+
+    public int frames() {
+        return frames;
+    }
+
+    void acked(int frame) {
+        if (acks.incrementAndGet(frame) == quorum && framesBelowQuorum.decrementAndGet() == 0) {
+            quorumFuture.complete(null);
+        }
+    }
+
+    void targetDone() {
+        if (targetsDone.incrementAndGet() == targets) {
+            replicatedFuture.complete(null);
+        }
+    }
+
+    void targetFailed(Throwable cause) {
+        replicatedFuture.completeExceptionally(cause);
+        if (targetsFailed.incrementAndGet() > targets - quorum) {
+            quorumFuture.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+
+/**
+ * Demand-driven RELP sink following the Reactive Streams signals, without depending on a Reactive Streams API. Upstream
+ * is asked for as many items as there is room in the window, and for more as batches are acknowledged, so a slow server
+ * slows down the publisher instead of filling a queue. One batch is in flight at a time, items arriving meanwhile are
+ * collected into the next one. Batches are sent with {@link IManagedRelpConnection#ensureSentAsync(RelpBatch)}, which
+ * reconnects as needed. On Java 9 or newer, {@code RelpFlowSubscriber} adapts this to
+ * {@code java.util.concurrent.Flow.Subscriber}.
+ */
+public class RelpSink {
+
+    private final IManagedRelpConnection managedRelpConnection;
+    private final int window;
+    private final int maxBatchFrames;
+    private final CompletableFuture<Void> completion;
+
+    private LongConsumer request;
+    private Runnable cancel;
+    private List<byte[]> pending;
+    private boolean inFlight;
+    private boolean upstreamDone;
+    private Throwable upstreamError;
+    private boolean cancelled;
+
+    public RelpSink(IManagedRelpConnection managedRelpConnection) {
+        this(managedRelpConnection, 1024, 256);
+    }
+
+    /**
+     * @param managedRelpConnection connection the items are sent over
+     * @param window                items received and not yet acknowledged at most
+     * @param maxBatchFrames        items in a batch at most
+     */
+    public RelpSink(IManagedRelpConnection managedRelpConnection, int window, int maxBatchFrames) {
+        if (window < 1 || maxBatchFrames < 1) {
+            throw new IllegalArgumentException("window and maxBatchFrames must be at least 1");
+        }
+        this.managedRelpConnection = managedRelpConnection;
+        this.window = window;
+        this.maxBatchFrames = maxBatchFrames;
+        this.completion = new CompletableFuture<>();
+        this.pending = new ArrayList<>();
+        this.inFlight = false;
+        this.upstreamDone = false;
+        this.upstreamError = null;
+        this.cancelled = false;
+    }
+
+    /**
+     * @param request asks upstream for more items
+     * @param cancel  cancels the upstream subscription
+     */
+    public void onSubscribe(LongConsumer request, Runnable cancel) {
+        final Signals signals = new Signals();
+        synchronized (this) {
+            if (this.request != null || cancelled) {
+                // only one subscription at a time
+                signals.cancel = cancel;
+            }
+            else {
+                this.request = request;
+                this.cancel = cancel;
+                signals.request = request;
+                signals.requested = window;
+            }
+        }
+        signals.run();
+    }
+
+    public void onNext(byte[] item) {
+        final Signals signals = new Signals();
+        synchronized (this) {
+            if (cancelled || upstreamDone) {
+                return;
+            }
+            pending.add(item);
+            flush(signals);
+        }
+        signals.run();
+    }
+
+    public void onError(Throwable throwable) {
+        final Signals signals = new Signals();
+        synchronized (this) {
+            upstreamDone = true;
+            upstreamError = throwable;
+            flush(signals);
+            finishIfDone(signals);
+        }
+        signals.run();
+    }
+
+    public void onComplete() {
+        final Signals signals = new Signals();
+        synchronized (this) {
+            upstreamDone = true;
+            flush(signals);
+            finishIfDone(signals);
+        }
+        signals.run();
+    }
+
+    /**
+     * Cancels upstream and drops the items not yet sent. The completion fails with {@link CancellationException} once
+     * the batch in flight is sent.
+     */
+    public void cancel() {
+        final Signals signals = new Signals();
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelUpstream(signals);
+            finishIfDone(signals);
+        }
+        signals.run();
+    }
+
+    /**
+     * @return future completing when upstream has completed and every item is acknowledged, or exceptionally with the
+     *         upstream error or the cancellation
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * Takes the next batch from the pending items if none is in flight, it is sent once the lock is released.
+     */
+    private void flush(Signals signals) {
+        if (inFlight || pending.isEmpty() || cancelled) {
+            return;
+        }
+        List<byte[]> items;
+        if (pending.size() <= maxBatchFrames) {
+            items = pending;
+            pending = new ArrayList<>();
+        }
+        else {
+            items = new ArrayList<>(pending.subList(0, maxBatchFrames));
+            pending = new ArrayList<>(pending.subList(maxBatchFrames, pending.size()));
+        }
+        RelpBatch relpBatch = new RelpBatch();
+        for (byte[] item : items) {
+            relpBatch.insert(item);
+        }
+        inFlight = true;
+        signals.relpBatch = relpBatch;
+        signals.frames = items.size();
+    }
+
+    private void send(RelpBatch relpBatch, int frames) {
+        final CompletableFuture<Long> future;
+        try {
+            future = managedRelpConnection.ensureSentAsync(relpBatch);
+        }
+        catch (RuntimeException e) {
+            // such as a rejected execution, the batch was never sent
+            sent(frames, e);
+            return;
+        }
+        future.whenComplete((attempts, throwable) -> sent(frames, throwable));
+    }
+
+    private void sent(int frames, Throwable throwable) {
+        final Signals signals = new Signals();
+        synchronized (this) {
+            inFlight = false;
+            if (throwable != null) {
+                if (!cancelled) {
+                    cancelUpstream(signals);
+                }
+                signals.done = true;
+                signals.failure = throwable;
+            }
+            else {
+                if (!cancelled && !upstreamDone) {
+                    // acknowledged items free their room in the window
+                    signals.request = request;
+                    signals.requested = frames;
+                }
+                flush(signals);
+                finishIfDone(signals);
+            }
+        }
+        signals.run();
+    }
+
+    private void cancelUpstream(Signals signals) {
+        cancelled = true;
+        pending = new ArrayList<>();
+        signals.cancel = cancel;
+    }
+
+    private void finishIfDone(Signals signals) {
+        if (inFlight) {
+            return;
+        }
+        if (cancelled) {
+            signals.done = true;
+            signals.failure = new CancellationException("Sink was cancelled");
+        }
+        else if (upstreamDone && pending.isEmpty()) {
+            signals.done = true;
+            signals.failure = upstreamError;
+        }
+    }
+
+    /**
+     * Calls to upstream, the connection and the completion decided while holding the lock, made after releasing it so
+     * that they cannot call back into the sink while it is locked.
+     */
+    private final class Signals {
+
+        private Runnable cancel;
+        private LongConsumer request;
+        private long requested;
+        private RelpBatch relpBatch;
+        private int frames;
+        private boolean done;
+        private Throwable failure;
+
+        private void run() {
+            if (cancel != null) {
+                cancel.run();
+            }
+            if (request != null && requested > 0) {
+                request.accept(requested);
+            }
+            if (relpBatch != null) {
+                send(relpBatch, frames);
+            }
+            if (done) {
+                if (failure == null) {
+                    completion.complete(null);
+                }
+                else {
+                    completion.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+}
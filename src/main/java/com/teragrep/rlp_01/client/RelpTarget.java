@@ -0,0 +1,46 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+/**
+ * Receiver of a multi-target {@link RelpConnectionFactory}, the weight sets its share of the traffic relative to the
+ * other targets.
+ */
+public final class RelpTarget {
+
+    public final String relpTarget;
+    public final int relpPort;
+    public final int weight;
+
+    public RelpTarget(String relpTarget, int relpPort) {
+        this(relpTarget, relpPort, 1);
+    }
+
+    public RelpTarget(String relpTarget, int relpPort, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Target weight must be positive, got <" + weight + ">");
+        }
+        this.relpTarget = relpTarget;
+        this.relpPort = relpPort;
+        this.weight = weight;
+    }
+
+    @Override
+    public String toString() {
+        return relpTarget + ":" + relpPort + "/" + weight;
+    }
+}
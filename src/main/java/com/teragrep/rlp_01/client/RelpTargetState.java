@@ -0,0 +1,115 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load of a {@link RelpTarget} as seen by the connections of one factory: batches in flight and an exponentially
+ * weighted moving average of the time taken to get them acknowledged. The average decays towards zero while no batches
+ * complete on the target, so a target that was slow gets retried after a while instead of being starved. A target whose
+ * latest attempt failed is down until an attempt on it succeeds.
+ */
+public final class RelpTargetState {
+
+    private static final double ALPHA = 0.2;
+    private static final double HALF_LIFE_NANOS = 10_000_000_000d;
+
+    private final RelpTarget target;
+    private final AtomicInteger inFlight;
+    private final AtomicLong latencyBits;
+    private volatile long lastEnd;
+    private volatile boolean down;
+    private volatile long failedAt;
+    // running weight of RoundRobinTargetSelector, only accessed under the selector's lock
+    int roundRobinWeight;
+
+    public RelpTargetState(RelpTarget target) {
+        this.target = target;
+        this.inFlight = new AtomicInteger();
+        this.latencyBits = new AtomicLong(Double.doubleToRawLongBits(0));
+        this.lastEnd = System.nanoTime();
+        this.down = false;
+        this.failedAt = lastEnd;
+    }
+
+    public RelpTarget target() {
+        return target;
+    }
+
+    /**
+     * @return number of batches sent to the target but not yet acknowledged
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return moving average of ack latency in nanoseconds, 0 until the first batch is acknowledged
+     */
+    public double latencyNanos() {
+        return decayed(Double.longBitsToDouble(latencyBits.get()), System.nanoTime());
+    }
+
+    /**
+     * @param retryNanos time a failed target is skipped for before it is tried again
+     * @return true if the latest attempt on the target succeeded, or failed at least retryNanos ago
+     */
+    public boolean available(long retryNanos) {
+        return !down || System.nanoTime() - failedAt >= retryNanos;
+    }
+
+    void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    void end(long latencyNanos) {
+        inFlight.decrementAndGet();
+        final long now = System.nanoTime();
+        long current;
+        double updated;
+        do {
+            current = latencyBits.get();
+            double average = decayed(Double.longBitsToDouble(current), now);
+            updated = average == 0 ? latencyNanos : average + ALPHA * (latencyNanos - average);
+        }
+        while (!latencyBits.compareAndSet(current, Double.doubleToRawLongBits(updated)));
+        lastEnd = now;
+        down = false;
+    }
+
+    /**
+     * Ends an attempt that failed, the target is down until an attempt on it succeeds.
+     */
+    void failed() {
+        inFlight.decrementAndGet();
+        failedAt = System.nanoTime();
+        down = true;
+    }
+
+    private double decayed(double average, long now) {
+        final long idle = now - lastEnd;
+        return idle <= 0 ? average : average * Math.pow(0.5, idle / HALF_LIFE_NANOS);
+    }
+
+    @Override
+    public String toString() {
+        return "RelpTargetState{" + "target=" + target + ", inFlight=" + inFlight() + ", latencyNanos="
+                + (long) latencyNanos() + ", down=" + down + '}';
+    }
+}
@@ -19,6 +19,7 @@ package com.teragrep.rlp_01.client;
 import com.teragrep.rlp_01.RelpBatch;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 import java.time.Instant;
 import java.time.Duration;
 
@@ -68,6 +69,11 @@ public class RenewableRelpConnection implements IManagedRelpConnection {
         return managedRelpConnection.ensureSent(relpBatch);
     }
 
+    @Override
+    public Executor executor() {
+        return managedRelpConnection.executor();
+    }
+
     @Override
     public boolean isStub() {
         return managedRelpConnection.isStub();
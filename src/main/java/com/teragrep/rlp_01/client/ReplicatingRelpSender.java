@@ -0,0 +1,112 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each batch to all targets at once and reports it done when a quorum of them has acknowledged every frame.
+ * <p>
+ * Each target gets a batch of its own, as transaction numbers are per session, but the frames of all targets share the
+ * payload arrays so they are not copied. The batches are committed concurrently on the executors of the connections, so
+ * the slowest target does not hold back the quorum, and targets lagging behind keep retrying in the background until
+ * they have everything too. Batches are sent to each target in the order they were given.
+ */
+public class ReplicatingRelpSender implements Closeable {
+
+    private final List<IManagedRelpConnection> targets;
+    private final int quorum;
+
+    /**
+     * @param targets connection to each target, each sending on an executor of its own
+     * @param quorum  number of targets that must acknowledge a frame, between 1 and the number of targets
+     */
+    public ReplicatingRelpSender(List<IManagedRelpConnection> targets, int quorum) {
+        if (quorum < 1 || quorum > targets.size()) {
+            throw new IllegalArgumentException(
+                    "Quorum <" + quorum + "> is not between 1 and the number of targets <" + targets.size() + ">"
+            );
+        }
+        this.targets = new ArrayList<>(targets);
+        this.quorum = quorum;
+    }
+
+    /**
+     * Starts replicating the payloads to all targets.
+     *
+     * @param payloads syslog messages, not copied and must not be modified until replicated
+     * @return progress of the replication
+     */
+    public RelpReplication send(List<byte[]> payloads) {
+        final RelpReplication replication = new RelpReplication(payloads.size(), targets.size(), quorum);
+        if (payloads.isEmpty()) {
+            return replication;
+        }
+        for (IManagedRelpConnection target : targets) {
+            final Map<Long, Integer> frames = new HashMap<>(payloads.size() * 2);
+            final boolean[] acked = new boolean[payloads.size()];
+            final RelpBatch relpBatch = new RelpBatch((requestId, responseCode) -> {
+                Integer frame = frames.get(requestId);
+                // a frame is retried only until it has been acknowledged, count it once regardless
+                if (responseCode == 200 && frame != null && !acked[frame]) {
+                    acked[frame] = true;
+                    replication.acked(frame);
+                }
+            });
+            for (int i = 0; i < payloads.size(); i++) {
+                frames.put(relpBatch.insert(payloads.get(i)), i);
+            }
+            target.ensureSentAsync(relpBatch).whenComplete((attempts, throwable) -> {
+                if (throwable == null) {
+                    replication.targetDone();
+                }
+                else {
+                    replication.targetFailed(throwable);
+                }
+            });
+        }
+        return replication;
+    }
+
+    /**
+     * Replicates the payloads and waits for the quorum, the remaining targets catch up in the background.
+     *
+     * @param payloads syslog messages, not copied and must not be modified until replicated
+     * @return progress of the replication, for waiting on the remaining targets
+     */
+    public RelpReplication ensureSent(List<byte[]> payloads) {
+        final RelpReplication replication = send(payloads);
+        replication.quorum().join();
+        return replication;
+    }
+
+    /**
+     * Closes the connections to all targets once the replications already handed to them have been sent, and waits for
+     * them to close. A target that is down keeps retrying its replications, so close waits until it is back.
+     */
+    @Override
+    public void close() throws IOException {
+        new QueuedClose(targets).close();
+    }
+}
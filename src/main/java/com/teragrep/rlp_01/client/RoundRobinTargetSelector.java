@@ -0,0 +1,43 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.List;
+
+/**
+ * Smooth weighted round-robin, a target of weight 3 gets three batches for every one of a target of weight 1, spread
+ * evenly instead of in bursts. The running weights are kept on the {@link RelpTargetState}s, so a target keeps its
+ * place in the rotation when other targets go down or come back.
+ */
+public final class RoundRobinTargetSelector implements RelpTargetSelector {
+
+    @Override
+    public synchronized int select(List<RelpTargetState> targets) {
+        int total = 0;
+        int chosen = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            RelpTargetState state = targets.get(i);
+            state.roundRobinWeight += state.target().weight;
+            total += state.target().weight;
+            if (state.roundRobinWeight > targets.get(chosen).roundRobinWeight) {
+                chosen = i;
+            }
+        }
+        targets.get(chosen).roundRobinWeight -= total;
+        return chosen;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * Caches the SSLContext of the wrapped supplier. The context is built once, on first use, so that reconnects neither
+ * reload the keystore nor lose the client session cache that allows TLS sessions to be resumed. Rotated certificates
+ * are therefore not picked up until {@link #invalidate()} is called, after which the next connect builds a new context.
+ */
+public class SSLContextSupplierCached implements SSLContextSupplier {
+
+    private final SSLContextSupplier sslContextSupplier;
+    private final int sessionCacheSize;
+    private final int sessionTimeout;
+    private SSLContext sslContext;
+
+    /**
+     * Cache with the session cache settings of the JDK.
+     */
+    public SSLContextSupplierCached(SSLContextSupplier sslContextSupplier) {
+        this(sslContextSupplier, -1, -1);
+    }
+
+    /**
+     * @param sslContextSupplier supplier for the context to cache
+     * @param sessionCacheSize   maximum amount of client sessions kept for resumption, 0 for no limit, -1 keeps the JDK
+     *                           default
+     * @param sessionTimeout     seconds a client session may be resumed, 0 for no limit, -1 keeps the JDK default
+     */
+    public SSLContextSupplierCached(SSLContextSupplier sslContextSupplier, int sessionCacheSize, int sessionTimeout) {
+        this.sslContextSupplier = sslContextSupplier;
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeout = sessionTimeout;
+        this.sslContext = null;
+    }
+
+    @Override
+    public synchronized SSLContext get() {
+        if (sslContext == null) {
+            SSLContext newContext = sslContextSupplier.get();
+            SSLSessionContext clientSessionContext = newContext.getClientSessionContext();
+            if (sessionCacheSize >= 0) {
+                clientSessionContext.setSessionCacheSize(sessionCacheSize);
+            }
+            if (sessionTimeout >= 0) {
+                clientSessionContext.setSessionTimeout(sessionTimeout);
+            }
+            sslContext = newContext;
+        }
+        return sslContext;
+    }
+
+    /**
+     * Drops the cached context, the next {@link #get()} builds a new one from the wrapped supplier, for example after
+     * the keystore has been rotated. Sessions of the dropped context can no longer be resumed.
+     */
+    public synchronized void invalidate() {
+        sslContext = null;
+    }
+
+    @Override
+    public boolean isStub() {
+        return sslContextSupplier.isStub();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks one at a time in submission order on the given executor, which lets a connection that is not thread-safe
+ * use a shared thread pool.
+ */
+final class SerialExecutor implements Executor {
+
+    private final Executor executor;
+    private final ArrayDeque<Runnable> tasks;
+    private Runnable active;
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+        this.tasks = new ArrayDeque<>();
+        this.active = null;
+    }
+
+    /**
+     * @throws RejectedExecutionException if the executor rejects the task, it is not run and the tasks submitted
+     *                                    earlier are scheduled again on the next submission
+     */
+    @Override
+    public synchronized void execute(Runnable task) {
+        final Runnable serialTask = () -> {
+            try {
+                task.run();
+            }
+            finally {
+                scheduleNext();
+            }
+        };
+        tasks.add(serialTask);
+        if (active == null) {
+            try {
+                scheduleNext();
+            }
+            catch (RejectedExecutionException e) {
+                tasks.remove(serialTask);
+                throw e;
+            }
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        active = tasks.poll();
+        if (active != null) {
+            try {
+                executor.execute(active);
+            }
+            catch (RejectedExecutionException e) {
+                // keep the order and let the next submission retry, an active task would stall the queue for good
+                tasks.addFirst(active);
+                active = null;
+                throw e;
+            }
+        }
+    }
+}
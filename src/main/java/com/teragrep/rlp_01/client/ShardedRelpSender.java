@@ -0,0 +1,160 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpFrameRX;
+import com.teragrep.rlp_01.RelpFrameTX;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Commits a single large batch over several connections at once, for catching up on a backlog faster than one session
+ * can, with its single thread doing TLS and its own window of unacknowledged frames.
+ * <p>
+ * The work queue of the batch is cut into one contiguous shard per connection, of about equal bytes. The shards are
+ * sent in parallel on the executors of the connections, each retried until fully acknowledged, and the responses are
+ * put back into the original batch under the original request ids. Order is kept within a shard but not across them.
+ */
+public class ShardedRelpSender implements Closeable {
+
+    private final List<IManagedRelpConnection> connections;
+
+    /**
+     * @param connections connections to commit the shards on, each sending on an executor of its own
+     */
+    public ShardedRelpSender(List<IManagedRelpConnection> connections) {
+        if (connections.isEmpty()) {
+            throw new IllegalArgumentException("Sharding requires at least one connection");
+        }
+        this.connections = new ArrayList<>(connections);
+    }
+
+    /**
+     * Commits the work queue of the batch and waits for all of it to be acknowledged.
+     *
+     * @param relpBatch batch to commit, not to be used by others until this returns
+     * @return number of commit attempts over all shards
+     */
+    public long ensureSent(RelpBatch relpBatch) {
+        return ensureSentAsync(relpBatch).join();
+    }
+
+    /**
+     * Commits the work queue of the batch, the responses are merged into it on the thread completing the last shard.
+     *
+     * @param relpBatch batch to commit, not to be used by others until the future completes
+     * @return number of commit attempts over all shards
+     */
+    public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+        final List<Long> ids = new ArrayList<>(relpBatch.getWorkQueueLength());
+        long totalBytes = 0;
+        while (relpBatch.getWorkQueueLength() > 0) {
+            Long id = relpBatch.popWorkQueue();
+            RelpFrameTX request = relpBatch.getRequest(id);
+            if (request != null) {
+                ids.add(id);
+                totalBytes += request.length();
+            }
+        }
+
+        final List<Shard> shards = new ArrayList<>(connections.size());
+        final long shardBytes = (totalBytes + connections.size() - 1) / connections.size();
+        Shard shard = new Shard();
+        long bytes = 0;
+        for (Long id : ids) {
+            RelpFrameTX request = relpBatch.getRequest(id);
+            if (bytes > 0 && bytes + request.length() > shardBytes && shards.size() < connections.size() - 1) {
+                shards.add(shard);
+                shard = new Shard();
+                bytes = 0;
+            }
+            // each frame goes to exactly one shard, so the shards can take the original frames as they are
+            shard.originalIds.add(id);
+            shard.shardIds.add(shard.relpBatch.putRequest(request));
+            bytes += request.length();
+        }
+        if (!shard.originalIds.isEmpty()) {
+            shards.add(shard);
+        }
+
+        final List<CompletableFuture<Long>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            futures.add(connections.get(i).ensureSentAsync(shards.get(i).relpBatch));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((done, throwable) -> {
+            long attempts = 0;
+            for (int i = 0; i < shards.size(); i++) {
+                shards.get(i).mergeInto(relpBatch);
+                if (!futures.get(i).isCompletedExceptionally()) {
+                    attempts += futures.get(i).join();
+                }
+            }
+            if (throwable != null) {
+                throw throwable instanceof CompletionException ? (CompletionException) throwable : new CompletionException(
+                        throwable
+                );
+            }
+            return attempts;
+        });
+    }
+
+    /**
+     * Closes the connections once the shards already handed to them have been sent, and waits for them to close.
+     */
+    @Override
+    public void close() throws IOException {
+        new QueuedClose(connections).close();
+    }
+
+    /**
+     * Part of the original batch with the mapping of its request ids back to the original ones.
+     */
+    private static final class Shard {
+
+        private final RelpBatch relpBatch;
+        private final List<Long> originalIds;
+        private final List<Long> shardIds;
+
+        private Shard() {
+            this.relpBatch = new RelpBatch();
+            this.originalIds = new ArrayList<>();
+            this.shardIds = new ArrayList<>();
+        }
+
+        /**
+         * Puts the responses of the shard into the original batch, frames left unacknowledged by a failed shard go back
+         * to the work queue of the original.
+         */
+        private void mergeInto(RelpBatch original) {
+            for (int i = 0; i < originalIds.size(); i++) {
+                RelpFrameRX response = relpBatch.getResponse(shardIds.get(i));
+                if (response != null) {
+                    original.putResponse(originalIds.get(i), response);
+                }
+                if (!original.verifyTransaction(originalIds.get(i))) {
+                    original.retryRequest(originalIds.get(i));
+                }
+            }
+        }
+    }
+}
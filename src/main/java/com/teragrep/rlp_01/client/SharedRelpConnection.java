@@ -0,0 +1,283 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpFrameRX;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread-safe front-end sharing one connection between any amount of producer threads. Producers submit messages into a
+ * lock-free queue and get a future of their own, the thread running this front-end owns the connection and streams the
+ * queue to it with
+ * {@link IRelpConnection#commitStream(Iterator, int, java.util.function.BiConsumer, java.util.function.Consumer)}. The
+ * queue is polled again after every read of acknowledgements, so messages submitted while others are in flight are
+ * written as soon as the next acknowledgements arrive, without waiting for the rest of the messages in flight, up to
+ * maxInFlight unacknowledged messages. Futures complete with the acknowledgement of their message as soon as it is
+ * read.
+ * <p>
+ * Messages that the server rejects, or that are in flight when the connection fails, are sent again after reconnecting,
+ * waiting for the backoff between failed connection attempts.
+ */
+public class SharedRelpConnection implements Runnable, Closeable {
+
+    private final IRelpConnection relpConnection;
+    private final ManagedRelpConnection connection;
+    private final int maxInFlight;
+    private final ConcurrentLinkedQueue<Submission> submissions;
+    private final AtomicBoolean parked;
+    private volatile Thread owner;
+    private volatile boolean running;
+    private volatile boolean reconnecting;
+
+    public SharedRelpConnection(IRelpConnection relpConnection) {
+        this(relpConnection, 4096);
+    }
+
+    /**
+     * Reconnect attempts are the reconnect interval of the relpConfig apart.
+     *
+     * @param relpConnection connection owned by the thread running this front-end
+     * @param maxInFlight    messages sent without an acknowledgement at most
+     */
+    public SharedRelpConnection(IRelpConnection relpConnection, int maxInFlight) {
+        this(relpConnection, maxInFlight, new ReconnectBackoffFixed(relpConnection.relpConfig().relpReconnectInterval));
+    }
+
+    /**
+     * @param relpConnection connection owned by the thread running this front-end
+     * @param maxInFlight    messages sent without an acknowledgement at most
+     * @param backoff        wait between reconnect attempts
+     */
+    public SharedRelpConnection(IRelpConnection relpConnection, int maxInFlight, ReconnectBackoff backoff) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.relpConnection = relpConnection;
+        this.connection = new ManagedRelpConnection(relpConnection, backoff);
+        this.maxInFlight = maxInFlight;
+        this.submissions = new ConcurrentLinkedQueue<>();
+        this.parked = new AtomicBoolean();
+        this.running = true;
+        this.reconnecting = false;
+    }
+
+    /**
+     * Submits a message for sending, may be called from any thread.
+     *
+     * @param syslogMessage message to send
+     * @return future completing with the acknowledgement of the message, or exceptionally if the front-end is closed
+     *         before the message is sent
+     */
+    public CompletableFuture<RelpFrameRX> send(byte[] syslogMessage) {
+        CompletableFuture<RelpFrameRX> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IOException("Connection is closed"));
+            return future;
+        }
+        submissions.add(new Submission(syslogMessage, future));
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            LockSupport.unpark(owner);
+        }
+        if (!running) {
+            // raced with close, the owner may already have drained the queue
+            failPending();
+        }
+        return future;
+    }
+
+    @Override
+    public void run() {
+        owner = Thread.currentThread();
+        Pending pending = new Pending();
+        try {
+            if (!reconnect()) {
+                return;
+            }
+            while (running) {
+                if (pending.retries.isEmpty() && submissions.isEmpty()) {
+                    parked.set(true);
+                    // a submission may have arrived before the flag was visible
+                    if (submissions.isEmpty() && running) {
+                        LockSupport.park(this);
+                    }
+                    parked.set(false);
+                    continue;
+                }
+
+                List<Submission> failed = new ArrayList<>();
+                boolean broken = false;
+                try {
+                    relpConnection.commitStream(pending, maxInFlight, (payload, response) -> {
+                        pending.inFlight.remove(payload).future.complete(response);
+                    }, payload -> failed.add(pending.inFlight.remove(payload)));
+                }
+                catch (IOException | IllegalStateException e) {
+                    System.err
+                            .println("Exception <" + e.getMessage() + "> while streaming shared connection. Will retry");
+                    broken = true;
+                }
+                // nothing is left in flight once the stream has returned, this only guards against lost callbacks
+                failed.addAll(pending.inFlight.values());
+                pending.inFlight.clear();
+                pending.retries.addAll(failed);
+                if (broken || !failed.isEmpty()) {
+                    if (!reconnect()) {
+                        return;
+                    }
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            pending.fail(e);
+            throw e;
+        }
+        finally {
+            running = false;
+            pending.fail(new IOException("Connection is closed"));
+            failPending();
+            connection.close();
+        }
+    }
+
+    /**
+     * Tears the connection down and connects again, waiting out the backoff between failed attempts.
+     *
+     * @return false if closed before connecting
+     */
+    private boolean reconnect() {
+        reconnecting = true;
+        try {
+            if (!running) {
+                return false;
+            }
+            connection.forceReconnect();
+            return true;
+        }
+        catch (IllegalStateException e) {
+            if (running) {
+                throw e;
+            }
+            // interrupted by close
+            Thread.interrupted();
+            return false;
+        }
+        finally {
+            reconnecting = false;
+        }
+    }
+
+    private void failPending() {
+        Submission submission;
+        while ((submission = submissions.poll()) != null) {
+            submission.future.completeExceptionally(new IOException("Connection is closed"));
+        }
+    }
+
+    /**
+     * Stops taking messages from the queue, the messages already in flight are sent before the thread running this
+     * front-end stops and those still queued fail. A connection that is down is not waited for: close interrupts the
+     * thread while it waits to reconnect, failing the messages that were to be sent again.
+     */
+    @Override
+    public void close() {
+        running = false;
+        Thread currentOwner = owner;
+        if (currentOwner != null) {
+            if (reconnecting) {
+                currentOwner.interrupt();
+            }
+            LockSupport.unpark(currentOwner);
+        }
+    }
+
+    /**
+     * Payloads of the stream, messages to be sent again first and then the queue, pulled only when the stream asks
+     * whether there is a next one. Used by the thread running this front-end only.
+     */
+    private final class Pending implements Iterator<byte[]> {
+
+        private final Deque<Submission> retries = new ArrayDeque<>();
+        // keyed by identity, the same payload is streamed once per submission
+        private final Map<byte[], Submission> inFlight = new IdentityHashMap<>();
+        private Submission next;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = retries.poll();
+            }
+            if (next == null && running) {
+                next = submissions.poll();
+            }
+            return next != null;
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Submission submission = next;
+            next = null;
+            byte[] payload = submission.syslogMessage;
+            if (inFlight.containsKey(payload)) {
+                // the same array submitted again while its first submission is in flight
+                payload = payload.clone();
+            }
+            inFlight.put(payload, submission);
+            return payload;
+        }
+
+        private void fail(Exception cause) {
+            if (next != null) {
+                retries.add(next);
+                next = null;
+            }
+            retries.addAll(inFlight.values());
+            inFlight.clear();
+            Submission submission;
+            while ((submission = retries.poll()) != null) {
+                submission.future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static final class Submission {
+
+        private final byte[] syslogMessage;
+        private final CompletableFuture<RelpFrameRX> future;
+
+        Submission(byte[] syslogMessage, CompletableFuture<RelpFrameRX> future) {
+            this.syslogMessage = syslogMessage;
+            this.future = future;
+        }
+    }
+}
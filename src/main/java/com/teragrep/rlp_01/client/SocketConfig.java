@@ -25,4 +25,11 @@ public interface SocketConfig {
     int connectTimeout();
 
     boolean keepAlive();
+
+    /**
+     * @return microseconds to busy poll the socket before blocking, 0 disables busy polling
+     */
+    default int busyPoll() {
+        return 0;
+    }
 }
@@ -37,4 +37,9 @@ public class SocketConfigDefault implements SocketConfig {
     public boolean keepAlive() {
         return false;
     }
+
+    @Override
+    public int busyPoll() {
+        return 0;
+    }
 }
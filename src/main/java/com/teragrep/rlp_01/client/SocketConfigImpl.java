@@ -22,12 +22,18 @@ public class SocketConfigImpl implements SocketConfig {
     private final int writeTimeout;
     private final int connectTimeout;
     private final boolean keepAlive;
+    private final int busyPoll;
 
     public SocketConfigImpl(int readTimeout, int writeTimeout, int connectTimeout, boolean keepAlive) {
+        this(readTimeout, writeTimeout, connectTimeout, keepAlive, 0);
+    }
+
+    public SocketConfigImpl(int readTimeout, int writeTimeout, int connectTimeout, boolean keepAlive, int busyPoll) {
         this.readTimeout = readTimeout;
         this.writeTimeout = writeTimeout;
         this.connectTimeout = connectTimeout;
         this.keepAlive = keepAlive;
+        this.busyPoll = busyPoll;
     }
 
     @Override
@@ -49,4 +55,9 @@ public class SocketConfigImpl implements SocketConfig {
     public boolean keepAlive() {
         return keepAlive;
     }
+
+    @Override
+    public int busyPoll() {
+        return busyPoll;
+    }
 }
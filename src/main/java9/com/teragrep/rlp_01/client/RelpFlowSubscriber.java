@@ -0,0 +1,71 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Subscriber} sending the items it receives over RELP with demand-driven backpressure, see
+ * {@link RelpSink}. Available on Java 9 or newer from the multi-release jar.
+ */
+public final class RelpFlowSubscriber implements Flow.Subscriber<byte[]> {
+
+    private final RelpSink relpSink;
+
+    public RelpFlowSubscriber(IManagedRelpConnection managedRelpConnection) {
+        this(new RelpSink(managedRelpConnection));
+    }
+
+    public RelpFlowSubscriber(RelpSink relpSink) {
+        this.relpSink = relpSink;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        relpSink.onSubscribe(subscription::request, subscription::cancel);
+    }
+
+    @Override
+    public void onNext(byte[] item) {
+        relpSink.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        relpSink.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        relpSink.onComplete();
+    }
+
+    /**
+     * Cancels the subscription, see {@link RelpSink#cancel()}.
+     */
+    public void cancel() {
+        relpSink.cancel();
+    }
+
+    /**
+     * @return future completing when every item is acknowledged, see {@link RelpSink#completion()}
+     */
+    public CompletableFuture<Void> completion() {
+        return relpSink.completion();
+    }
+}
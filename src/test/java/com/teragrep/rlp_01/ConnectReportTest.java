@@ -0,0 +1,68 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+public class ConnectReportTest {
+
+    @Test
+    public void testHandshakeIsBoundedByConnectionTimeout() {
+        Assertions.assertDoesNotThrow(() -> {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, null, null);
+            try (ServerSocket silentServer = new ServerSocket(0)) {
+                RelpClientTlsSocket socket = new RelpClientTlsSocket(
+                        address -> sslContext.createSSLEngine(address.getHostString(), address.getPort())
+                );
+                socket.setConnectionTimeout(200);
+                long started = System.nanoTime();
+                // accepted by the backlog, the server never answers the ClientHello
+                TimeoutException timeoutException = Assertions
+                        .assertThrows(TimeoutException.class, () -> socket.open("localhost", silentServer.getLocalPort()));
+                Assertions.assertEquals("handshake timed out", timeoutException.getMessage());
+                Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 5000);
+                socket.close();
+            }
+        });
+    }
+
+    @Test
+    public void testPlainConnectReport() {
+        Assertions.assertDoesNotThrow(() -> {
+            try (ServerSocket serverSocket = new ServerSocket(0)) {
+                RelpClientPlainSocket socket = new RelpClientPlainSocket();
+                socket.open("localhost", serverSocket.getLocalPort());
+                try (Socket accepted = serverSocket.accept()) {
+                    ConnectReport connectReport = socket.getConnectReport();
+                    Assertions.assertFalse(connectReport.connectTime().isZero());
+                    Assertions.assertTrue(connectReport.handshakeTime().isZero());
+                    Assertions.assertEquals("", connectReport.protocol());
+                    Assertions.assertEquals("", connectReport.cipherSuite());
+                }
+                socket.close();
+            }
+        });
+    }
+}
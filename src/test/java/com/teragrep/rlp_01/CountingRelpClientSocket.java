@@ -0,0 +1,124 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the size of each write and acknowledges every frame written to it.
+ */
+final class CountingRelpClientSocket extends RelpClientSocket {
+
+    private final int coalescingLimit;
+    final List<Integer> writes = new ArrayList<>();
+    private final RelpParser parser = new RelpParser();
+    private final ArrayDeque<Byte> acks = new ArrayDeque<>();
+    int frames = 0;
+
+    CountingRelpClientSocket(int coalescingLimit) {
+        this.coalescingLimit = coalescingLimit;
+    }
+
+    @Override
+    protected int getCoalescingLimit() {
+        return coalescingLimit;
+    }
+
+    @Override
+    public void write(ByteBuffer byteBuffer) {
+        writes.add(byteBuffer.remaining());
+        while (byteBuffer.hasRemaining()) {
+            parser.parse(byteBuffer.get());
+            if (parser.isComplete()) {
+                if ("syslog".equals(parser.getCommandString())) {
+                    frames++;
+                }
+                // close is acknowledged with an empty response
+                String ack = "close".equals(parser.getCommandString()) ? parser.getTxnId()
+                        + " rsp 0\n" : parser.getTxnId() + " rsp 6 200 OK\n";
+                for (byte b : ack.getBytes(StandardCharsets.US_ASCII)) {
+                    acks.add(b);
+                }
+                parser.reset();
+            }
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) {
+        int read = 0;
+        while (!acks.isEmpty() && byteBuffer.hasRemaining()) {
+            byteBuffer.put(acks.poll());
+            read++;
+        }
+        return read;
+    }
+
+    @Override
+    public void open(String hostname, int port) {
+        // nothing to open
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+
+    @Override
+    public void wakeup() {
+        // never blocks
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return 0;
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        // not applicable
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return 0;
+    }
+
+    @Override
+    public void setWriteTimeout(int writeTimeout) {
+        // not applicable
+    }
+
+    @Override
+    public int getConnectionTimeout() {
+        return 0;
+    }
+
+    @Override
+    public void setConnectionTimeout(int connectionTimeout) {
+        // not applicable
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        // not applicable
+    }
+}
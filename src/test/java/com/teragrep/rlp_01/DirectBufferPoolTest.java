@@ -0,0 +1,136 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testAcquireReturnsRequestedSize() {
+        DirectBufferPool pool = new DirectBufferPool();
+        ByteBuffer buffer = pool.acquire(1000);
+        Assertions.assertTrue(buffer.isDirect());
+        Assertions.assertEquals(1000, buffer.capacity());
+        Assertions.assertEquals(1000, buffer.remaining());
+        // the size class is in use
+        Assertions.assertEquals(1024, pool.getInUseBytes());
+
+        ByteBuffer small = pool.acquire(1);
+        Assertions.assertEquals(1, small.capacity());
+        Assertions.assertEquals(1024 + 512, pool.getInUseBytes());
+    }
+
+    @Test
+    public void testReleasedBufferIsReused() {
+        DirectBufferPool pool = new DirectBufferPool();
+        ByteBuffer buffer = pool.acquire(17000);
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        Assertions.assertEquals(0, pool.getInUseBytes());
+        Assertions.assertEquals(32768, pool.getIdleBytes());
+
+        ByteBuffer reused = pool.acquire(20000);
+        Assertions.assertEquals(20000, reused.capacity());
+        Assertions.assertEquals(0, reused.position());
+        Assertions.assertEquals(reused.capacity(), reused.limit());
+        // same memory as the released buffer
+        Assertions.assertEquals(1, reused.get(0));
+        Assertions.assertEquals(1, pool.getAllocations());
+        Assertions.assertEquals(1, pool.getReuses());
+        Assertions.assertEquals(0, pool.getIdleBytes());
+    }
+
+    @Test
+    public void testOversizedBufferIsNotPooled() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 1 << 20, 30_000);
+        ByteBuffer buffer = pool.acquire(5000);
+        Assertions.assertEquals(5000, buffer.capacity());
+        pool.release(buffer);
+        Assertions.assertEquals(0, pool.getIdleBytes());
+        Assertions.assertEquals(0, pool.getInUseBytes());
+    }
+
+    @Test
+    public void testIdleBytesAreCapped() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 4096, 30_000);
+        ByteBuffer first = pool.acquire(4096);
+        ByteBuffer second = pool.acquire(4096);
+        pool.release(first);
+        pool.release(second);
+        Assertions.assertEquals(4096, pool.getIdleBytes());
+    }
+
+    @Test
+    public void testIdleBuffersExpire() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 1 << 20, 10);
+        pool.release(pool.acquire(1024));
+        pool.release(pool.acquire(2048));
+        Assertions.assertEquals(1024 + 2048, pool.getIdleBytes());
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(20));
+        pool.trim();
+        Assertions.assertEquals(0, pool.getIdleBytes());
+    }
+
+    @Test
+    public void testPooledBufferAllocator() {
+        DirectBufferPool pool = new DirectBufferPool();
+        PooledBufferAllocator allocator = new PooledBufferAllocator(pool);
+        ByteBuffer buffer = allocator.allocate(17408);
+        Assertions.assertEquals(17408, buffer.capacity());
+        allocator.free(buffer);
+        Assertions.assertEquals(32768, pool.getIdleBytes());
+        Assertions.assertEquals(17408, allocator.allocate(17408).capacity());
+        Assertions.assertEquals(1, pool.getReuses());
+    }
+
+    @Test
+    public void testConnectionHoldsBuffersOnlyWhileInUse() {
+        DirectBufferPool pool = new DirectBufferPool();
+        RelpConnection relpConnection = new RelpConnection(new CountingRelpClientSocket(16384), pool);
+        Assertions.assertEquals(0, pool.getInUseBytes());
+
+        Assertions.assertDoesNotThrow(() -> relpConnection.connect("localhost", 0));
+        // RX buffer is held while open, TX buffer went back after the open batch
+        Assertions.assertEquals(512, pool.getInUseBytes());
+        Assertions.assertEquals(262144, pool.getIdleBytes());
+
+        RelpBatch relpBatch = new RelpBatch();
+        relpBatch.insert(new byte[100]);
+        relpBatch.insert(new byte[300000]);
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(512, pool.getInUseBytes());
+        Assertions.assertEquals(2, pool.getAllocations() - 1);
+
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.disconnect()));
+        Assertions.assertEquals(0, pool.getInUseBytes());
+
+        relpConnection.tearDown();
+        Assertions.assertEquals(0, pool.getInUseBytes());
+
+        // reconnect reuses the pooled buffers
+        long allocations = pool.getAllocations();
+        Assertions.assertDoesNotThrow(() -> relpConnection.connect("localhost", 0));
+        relpConnection.tearDown();
+        Assertions.assertEquals(allocations, pool.getAllocations());
+        Assertions.assertEquals(0, pool.getInUseBytes());
+    }
+}
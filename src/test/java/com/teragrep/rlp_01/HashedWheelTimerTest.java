@@ -0,0 +1,160 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void testDeadlineExpires() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 8);
+        Thread timerThread = new Thread(timer);
+        timerThread.start();
+
+        CountDownLatch expired = new CountDownLatch(1);
+        long scheduledAt = System.nanoTime();
+        Deadline deadline = timer.schedule(expired::countDown, 20);
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(expired.await(5, TimeUnit.SECONDS)));
+        Assertions.assertTrue(System.nanoTime() - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(deadline.isExpired());
+        Assertions.assertFalse(deadline.cancel(), "expired deadline must not be cancellable");
+
+        timer.close();
+        Assertions.assertDoesNotThrow(() -> timerThread.join());
+    }
+
+    @Test
+    public void testDeadlineSpanningManyRounds() {
+        // wheel of 4 buckets with 1 ms ticks, deadline needs several rotations
+        HashedWheelTimer timer = new HashedWheelTimer(1, 4);
+        Thread timerThread = new Thread(timer);
+        timerThread.start();
+
+        CountDownLatch expired = new CountDownLatch(1);
+        long scheduledAt = System.nanoTime();
+        timer.schedule(expired::countDown, 30);
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(expired.await(5, TimeUnit.SECONDS)));
+        Assertions.assertTrue(System.nanoTime() - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(30));
+
+        timer.close();
+        Assertions.assertDoesNotThrow(() -> timerThread.join());
+    }
+
+    @Test
+    public void testCancelledDeadlineDoesNotExpire() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 8);
+        Thread timerThread = new Thread(timer);
+        timerThread.start();
+
+        AtomicInteger expirations = new AtomicInteger();
+        Deadline deadline = timer.schedule(expirations::incrementAndGet, 10);
+        Assertions.assertTrue(deadline.cancel());
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(50));
+        Assertions.assertEquals(0, expirations.get());
+        Assertions.assertFalse(deadline.isExpired());
+
+        timer.close();
+        Assertions.assertDoesNotThrow(() -> timerThread.join());
+    }
+
+    @Test
+    public void testManyDeadlines() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 64);
+        Thread timerThread = new Thread(timer);
+        timerThread.start();
+
+        int deadlines = 10_000;
+        CountDownLatch expired = new CountDownLatch(deadlines / 2);
+        AtomicInteger expirations = new AtomicInteger();
+        for (int i = 0; i < deadlines; i++) {
+            Deadline deadline = timer.schedule(() -> {
+                expirations.incrementAndGet();
+                expired.countDown();
+            }, i % 100);
+            if (i % 2 == 0) {
+                deadline.cancel();
+            }
+        }
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(expired.await(5, TimeUnit.SECONDS)));
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(20));
+        Assertions.assertEquals(deadlines / 2, expirations.get());
+
+        timer.close();
+        Assertions.assertDoesNotThrow(() -> timerThread.join());
+    }
+
+    @Test
+    public void testDeadlineInterruptsBlockingRead() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 8);
+        Thread timerThread = new Thread(timer);
+        timerThread.start();
+
+        Assertions.assertDoesNotThrow(() -> {
+            try (ServerSocket serverSocket = new ServerSocket(0)) {
+                RelpClientPlainSocket socket = new RelpClientPlainSocket();
+                socket.open("localhost", serverSocket.getLocalPort());
+                try (Socket silentPeer = serverSocket.accept()) {
+                    // read timeout 0 would wait forever, the deadline ends the wait
+                    socket.setDeadline(timer.schedule(socket::wakeup, 50));
+                    TimeoutException timeoutException = Assertions
+                            .assertThrows(TimeoutException.class, () -> socket.read(ByteBuffer.allocate(16)));
+                    Assertions.assertEquals("deadline exceeded", timeoutException.getMessage());
+                }
+                socket.close();
+            }
+        });
+
+        timer.close();
+        Assertions.assertDoesNotThrow(() -> timerThread.join());
+    }
+
+    @Test
+    public void testDeadlineInterruptsEventLoopRead() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 8);
+        Thread timerThread = new Thread(timer);
+        timerThread.start();
+
+        Assertions.assertDoesNotThrow(() -> {
+            try (
+                    ServerSocket serverSocket = new ServerSocket(0); RelpClientEventLoopGroup eventLoopGroup = new RelpClientEventLoopGroup(1)
+            ) {
+                RelpClientPlainEventLoopSocket socket = new RelpClientPlainEventLoopSocket(eventLoopGroup.next());
+                socket.open("localhost", serverSocket.getLocalPort());
+                try (Socket silentPeer = serverSocket.accept()) {
+                    socket.setDeadline(timer.schedule(socket::wakeup, 50));
+                    TimeoutException timeoutException = Assertions
+                            .assertThrows(TimeoutException.class, () -> socket.read(ByteBuffer.allocate(16)));
+                    Assertions.assertEquals("deadline exceeded", timeoutException.getMessage());
+                }
+                socket.close();
+            }
+        });
+
+        timer.close();
+        Assertions.assertDoesNotThrow(() -> timerThread.join());
+    }
+}
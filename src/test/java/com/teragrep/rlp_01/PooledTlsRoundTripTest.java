@@ -0,0 +1,133 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Arrays;
+
+/**
+ * Round trip over TLS with the channel buffers allocated from a {@link DirectBufferPool}.
+ */
+public class PooledTlsRoundTripTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private KeyStore keyStore() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream inputStream = getClass().getResourceAsStream("/keystore-rlp_01-test.p12")) {
+            keyStore.load(inputStream, PASSWORD);
+        }
+        return keyStore;
+    }
+
+    private SSLContext serverContext() throws Exception {
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore(), PASSWORD);
+        SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        return sslContext;
+    }
+
+    private SSLContext clientContext() throws Exception {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory
+                .getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(keyStore());
+        SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
+        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+        return sslContext;
+    }
+
+    /**
+     * Answers the frames of one client with {@link RelpLoopbackResponder}.
+     */
+    private Thread server(SSLServerSocket serverSocket) {
+        return new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                RelpLoopbackResponder responder = new RelpLoopbackResponder();
+                InputStream inputStream = socket.getInputStream();
+                OutputStream outputStream = socket.getOutputStream();
+                byte[] received = new byte[65536];
+                ByteBuffer response = ByteBuffer.allocate(65536);
+                int read;
+                while ((read = inputStream.read(received)) != -1) {
+                    responder.receive(ByteBuffer.wrap(received, 0, read), System.nanoTime());
+                    response.clear();
+                    responder.respond(response, System.nanoTime());
+                    outputStream.write(response.array(), 0, response.position());
+                    outputStream.flush();
+                }
+            }
+            catch (Exception e) {
+                System.err.println("Test server failed: <" + e.getMessage() + ">");
+            }
+        });
+    }
+
+    @Test
+    public void testRoundTripWithPooledBuffers() {
+        Assertions.assertDoesNotThrow(() -> {
+            DirectBufferPool pool = new DirectBufferPool();
+            SSLContext clientContext = clientContext();
+            try (
+                    SSLServerSocket serverSocket = (SSLServerSocket) serverContext()
+                            .getServerSocketFactory()
+                            .createServerSocket(0, 1, InetAddress.getLoopbackAddress())
+            ) {
+                for (int round = 0; round < 2; round++) {
+                    Thread server = server(serverSocket);
+                    server.start();
+                    RelpConnection relpConnection = new RelpConnection(
+                            new RelpClientTlsSocket(
+                                    address -> clientContext.createSSLEngine(address.getHostString(), address.getPort()), pool
+                            ),
+                            pool
+                    );
+                    Assertions.assertTrue(relpConnection.connect("localhost", serverSocket.getLocalPort()));
+
+                    // larger than a TLS record, so the channel has to read and write it in pieces
+                    byte[] large = new byte[100_000];
+                    Arrays.fill(large, (byte) 'x');
+                    RelpBatch relpBatch = new RelpBatch();
+                    relpBatch.insert("message".getBytes(StandardCharsets.UTF_8));
+                    relpBatch.insert(large);
+                    relpConnection.commit(relpBatch);
+                    Assertions.assertTrue(relpBatch.verifyTransactionAll());
+
+                    Assertions.assertTrue(relpConnection.disconnect());
+                    relpConnection.tearDown();
+                    server.join(10_000);
+                    Assertions.assertEquals(0, pool.getInUseBytes());
+                }
+                // the second connection got the buffers the first one gave back
+                Assertions.assertTrue(pool.getReuses() > 0);
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RecordCoalescingTest {
+
+    @Test
+    public void testFramesAreCoalescedIntoRecords() {
+        CountingRelpClientSocket socket = new CountingRelpClientSocket(16384);
+        RelpConnection relpConnection = new RelpConnection(socket);
+        Assertions.assertDoesNotThrow(() -> relpConnection.connect("localhost", 0));
+
+        byte[] message = new byte[200];
+        RelpBatch relpBatch = new RelpBatch();
+        for (int i = 0; i < 1000; i++) {
+            relpBatch.insert(message);
+        }
+        int writesBefore = socket.writes.size();
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+
+        List<Integer> batchWrites = socket.writes.subList(writesBefore, socket.writes.size());
+        int batchBytes = 0;
+        for (int write : batchWrites) {
+            Assertions.assertTrue(write <= 16384);
+            batchBytes += write;
+        }
+        // every write except the last one fills a record up to a frame
+        Assertions.assertTrue(batchWrites.size() <= batchBytes / (16384 - 300) + 1);
+        Assertions.assertEquals(1000, socket.frames);
+    }
+
+    @Test
+    public void testLargeFrameIsWrittenAlone() {
+        CountingRelpClientSocket socket = new CountingRelpClientSocket(16384);
+        RelpConnection relpConnection = new RelpConnection(socket);
+        Assertions.assertDoesNotThrow(() -> relpConnection.connect("localhost", 0));
+
+        RelpBatch relpBatch = new RelpBatch();
+        relpBatch.insert(new byte[100]);
+        relpBatch.insert(new byte[300000]);
+        relpBatch.insert(new byte[100]);
+        int writesBefore = socket.writes.size();
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(3, socket.writes.size() - writesBefore);
+    }
+
+    @Test
+    public void testPlainSocketCoalescesUpToTxBuffer() {
+        CountingRelpClientSocket socket = new CountingRelpClientSocket(Integer.MAX_VALUE);
+        RelpConnection relpConnection = new RelpConnection(socket);
+        Assertions.assertDoesNotThrow(() -> relpConnection.connect("localhost", 0));
+
+        RelpBatch relpBatch = new RelpBatch();
+        for (int i = 0; i < 1000; i++) {
+            relpBatch.insert(new byte[200]);
+        }
+        int writesBefore = socket.writes.size();
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(1, socket.writes.size() - writesBefore);
+    }
+}
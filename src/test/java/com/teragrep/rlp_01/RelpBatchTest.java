@@ -21,6 +21,13 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 public class RelpBatchTest {
 
@@ -231,4 +238,62 @@ public class RelpBatchTest {
         buffer.flip();
         return buffer;
     }
+
+    @Test
+    public void testAckListener() {
+        List<Long> acked = new ArrayList<>();
+        List<Integer> responseCodes = new ArrayList<>();
+        RelpBatch batch = new RelpBatch((requestId, responseCode) -> {
+            acked.add(requestId);
+            responseCodes.add(responseCode);
+        });
+        Long first = batch.insert(message.getBytes(StandardCharsets.UTF_8));
+        Long second = batch.insert(message.getBytes(StandardCharsets.UTF_8));
+
+        String ok = "200 OK";
+        batch
+                .putResponse(
+                        second,
+                        new RelpFrameRX(2, "rsp", ok.length(), ByteBuffer.wrap(ok.getBytes(StandardCharsets.UTF_8)))
+                );
+        String failure = "500 Failure";
+        batch
+                .putResponse(
+                        first,
+                        new RelpFrameRX(
+                                1,
+                                "rsp",
+                                failure.length(),
+                                ByteBuffer.wrap(failure.getBytes(StandardCharsets.UTF_8))
+                        )
+                );
+        batch.putResponse(first, new RelpFrameRX(1, "rsp", 0, ByteBuffer.allocate(0)));
+        // responses to unknown requests are not acknowledgements
+        batch
+                .putResponse(
+                        100L, new RelpFrameRX(3, "rsp", ok.length(), ByteBuffer.wrap(ok.getBytes(StandardCharsets.UTF_8)))
+                );
+
+        Assertions.assertEquals(Arrays.asList(second, first, first), acked);
+        Assertions.assertEquals(Arrays.asList(200, 500, -1), responseCodes);
+    }
+
+    @Test
+    public void testAckListenerDuringCommit() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 0.5, new Random(7));
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        Map<Long, Integer> acks = new HashMap<>();
+        RelpBatch batch = new RelpBatch(acks::put);
+        for (int i = 0; i < 100; i++) {
+            batch.insert(message.getBytes(StandardCharsets.UTF_8));
+        }
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(batch));
+        Assertions.assertEquals(100, acks.size());
+        for (Map.Entry<Long, Integer> ack : acks.entrySet()) {
+            Assertions.assertEquals(batch.verifyTransaction(ack.getKey()), ack.getValue() == 200);
+        }
+        relpConnection.tearDown();
+    }
 }
@@ -0,0 +1,128 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import com.teragrep.net_01.channel.socket.PlainFactory;
+import com.teragrep.net_01.eventloop.EventLoop;
+import com.teragrep.net_01.eventloop.EventLoopFactory;
+import com.teragrep.net_01.server.ServerFactory;
+import com.teragrep.rlp_03.frame.FrameDelegationClockFactory;
+import com.teragrep.rlp_03.frame.delegate.DefaultFrameDelegate;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RelpClientEventLoopTest {
+
+    private final String hostname = "localhost";
+    private EventLoop eventLoop;
+    private Thread eventLoopThread;
+
+    private ExecutorService executorService;
+    private final int port = 1237;
+
+    private final ConcurrentLinkedDeque<byte[]> messageList = new ConcurrentLinkedDeque<>();
+
+    @BeforeAll
+    public void init() {
+        EventLoopFactory eventLoopFactory = new EventLoopFactory();
+        Assertions.assertDoesNotThrow(() -> eventLoop = eventLoopFactory.create());
+
+        eventLoopThread = new Thread(eventLoop);
+        eventLoopThread.start();
+
+        executorService = Executors.newSingleThreadExecutor();
+        ServerFactory serverFactory = new ServerFactory(
+                eventLoop,
+                executorService,
+                new PlainFactory(),
+                new FrameDelegationClockFactory(() -> new DefaultFrameDelegate((frame) -> messageList.add(frame.relpFrame().payload().toBytes())))
+        );
+        Assertions.assertDoesNotThrow(() -> serverFactory.create(port));
+    }
+
+    @AfterAll
+    public void cleanup() {
+        eventLoop.stop();
+        executorService.shutdown();
+        Assertions.assertDoesNotThrow(() -> eventLoopThread.join());
+    }
+
+    @AfterEach
+    public void clearMessageList() {
+        messageList.clear();
+    }
+
+    @Test
+    public void testSendMessage() {
+        Assertions.assertDoesNotThrow(() -> {
+            try (RelpClientEventLoopGroup eventLoopGroup = new RelpClientEventLoopGroup(1)) {
+                RelpConnection relpSession = new RelpConnection(eventLoopGroup.next());
+                Assertions.assertTrue(relpSession.connect(hostname, port));
+                String msg = "<14>1 2020-05-15T13:24:03.603Z CFE-16 capsulated - - - \"Hello, event loop!\"\n";
+                RelpBatch batch = new RelpBatch();
+                long reqId = batch.insert(msg.getBytes(StandardCharsets.UTF_8));
+                relpSession.commit(batch);
+                Assertions.assertTrue(batch.verifyTransaction(reqId));
+                Assertions.assertTrue(relpSession.disconnect());
+
+                Assertions.assertEquals(msg, new String(messageList.getFirst(), StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    @Test
+    public void testManyConnectionsShareEventLoops() {
+        int connections = 50;
+        int messagesPerConnection = 20;
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        Assertions.assertDoesNotThrow(() -> {
+            try (RelpClientEventLoopGroup eventLoopGroup = new RelpClientEventLoopGroup(2)) {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < connections; i++) {
+                    final RelpConnection relpSession = new RelpConnection(eventLoopGroup.next());
+                    final int connectionNumber = i;
+                    results.add(senders.submit(() -> {
+                        relpSession.connect(hostname, port);
+                        RelpBatch batch = new RelpBatch();
+                        for (int j = 0; j < messagesPerConnection; j++) {
+                            batch.insert(("message " + connectionNumber + " " + j).getBytes(StandardCharsets.UTF_8));
+                        }
+                        relpSession.commit(batch);
+                        boolean allSent = batch.verifyTransactionAll();
+                        relpSession.disconnect();
+                        return allSent;
+                    }));
+                }
+                for (Future<Boolean> result : results) {
+                    Assertions.assertTrue(result.get());
+                }
+            }
+            finally {
+                senders.shutdown();
+            }
+        });
+        Assertions.assertEquals(connections * messagesPerConnection, messageList.size());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class RelpClientFaultInjectingSocketTest {
+
+    private RelpBatch batch(int messages, int messageSize) {
+        RelpBatch relpBatch = new RelpBatch();
+        for (int i = 0; i < messages; i++) {
+            relpBatch.insert(new byte[messageSize]);
+        }
+        return relpBatch;
+    }
+
+    @Test
+    public void testDelay() {
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(
+                        new RelpClientLoopbackSocket(),
+                        new SocketFaults().withDelay(Duration.ofMillis(10), Duration.ZERO)
+                )
+        );
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        RelpBatch relpBatch = batch(1, 10);
+        long started = System.nanoTime();
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        // one write and one read
+        Assertions.assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testBandwidth() {
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(
+                        new RelpClientLoopbackSocket(),
+                        new SocketFaults().withBandwidth(100_000)
+                )
+        );
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        RelpBatch relpBatch = batch(10, 1000);
+        long started = System.nanoTime();
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testPartialWritesAndShortReads() {
+        CountingRelpClientSocket countingSocket = new CountingRelpClientSocket(Integer.MAX_VALUE);
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(countingSocket, new SocketFaults().withPartialWrites(7).withShortReads(3))
+        );
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        RelpBatch relpBatch = batch(100, 50);
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(100, countingSocket.frames);
+        for (int write : countingSocket.writes) {
+            Assertions.assertTrue(write <= 7);
+        }
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testReset() {
+        // open takes a write and a read, the reset fires on the write of the first commit
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(
+                        new RelpClientLoopbackSocket(),
+                        new SocketFaults().withResets(new ScheduledFaultTrigger(3, 0))
+                )
+        );
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        IOException ioException = Assertions.assertThrows(IOException.class, () -> relpConnection.commit(batch(1, 10)));
+        Assertions.assertEquals("connection reset", ioException.getMessage());
+        relpConnection.tearDown();
+
+        // reconnecting clears the reset
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        RelpBatch relpBatch = batch(1, 10);
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testStallTimesOut() {
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(
+                        new RelpClientLoopbackSocket(),
+                        new SocketFaults().withStalls(new ScheduledFaultTrigger(4, 0), Duration.ofSeconds(10))
+                )
+        );
+        relpConnection.setReadTimeout(50);
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        TimeoutException timeoutException = Assertions
+                .assertThrows(TimeoutException.class, () -> relpConnection.commit(batch(1, 10)));
+        Assertions.assertEquals("read timed out", timeoutException.getMessage());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testHalfOpen() {
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(
+                        new RelpClientLoopbackSocket(),
+                        new SocketFaults().withHalfOpen(new ScheduledFaultTrigger(2, 0))
+                )
+        );
+        relpConnection.setReadTimeout(50);
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        TimeoutException timeoutException = Assertions
+                .assertThrows(TimeoutException.class, () -> relpConnection.commit(batch(1, 10)));
+        Assertions.assertEquals("read timed out", timeoutException.getMessage());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testRandomTrigger() {
+        FaultTrigger never = new RandomFaultTrigger(0);
+        FaultTrigger always = new RandomFaultTrigger(1);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(never.fire());
+            Assertions.assertTrue(always.fire());
+        }
+    }
+
+    @Test
+    public void testScheduledTrigger() {
+        FaultTrigger trigger = new ScheduledFaultTrigger(2, 3);
+        boolean[] expected = {
+                false, true, false, false, true, false, false, true
+        };
+        for (boolean fires : expected) {
+            Assertions.assertEquals(fires, trigger.fire());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class RelpClientLoopbackSocketTest {
+
+    @Test
+    public void testOpenCommitClose() {
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket());
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        for (int i = 0; i < 100; i++) {
+            RelpBatch relpBatch = new RelpBatch();
+            for (int j = 0; j < 100; j++) {
+                relpBatch.insert(("message " + j).getBytes(StandardCharsets.UTF_8));
+            }
+            Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+            Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        }
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.disconnect()));
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testLatency() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofMillis(20), Duration.ofMillis(10), 0);
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        RelpBatch relpBatch = new RelpBatch();
+        relpBatch.insert("message".getBytes(StandardCharsets.UTF_8));
+        long started = System.nanoTime();
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        long elapsed = System.nanoTime() - started;
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(20));
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testFailureRate() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 0.5, new Random(42));
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        RelpBatch relpBatch = new RelpBatch();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(relpBatch.insert("message".getBytes(StandardCharsets.UTF_8)));
+        }
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        int failed = 0;
+        for (long id : ids) {
+            if (!relpBatch.verifyTransaction(id)) {
+                failed++;
+            }
+        }
+        Assertions.assertTrue(failed > 400 && failed < 600, "failed " + failed);
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testReadTimeout() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofSeconds(10), Duration.ZERO, 0);
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        relpConnection.setReadTimeout(50);
+        TimeoutException timeoutException = Assertions
+                .assertThrows(TimeoutException.class, () -> relpConnection.connect("loopback", 0));
+        Assertions.assertEquals("read timed out", timeoutException.getMessage());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testWriteAfterCloseFails() {
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket());
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        relpConnection.tearDown();
+        Assertions.assertThrows(IllegalStateException.class, () -> relpConnection.commit(new RelpBatch()));
+    }
+}
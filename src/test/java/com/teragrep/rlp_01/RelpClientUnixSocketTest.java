@@ -0,0 +1,112 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class RelpClientUnixSocketTest {
+
+    @Test
+    public void testSendOverUnixSocket() throws Exception {
+        Assumptions.assumeTrue(RelpClientSocket.isUnixSocketSupported());
+
+        Path directory = Files.createTempDirectory("rlp_01");
+        Path socketPath = directory.resolve("relp.sock");
+        // server side is looked up reflectively as well, tests are compiled for Java 8
+        SocketAddress address = (SocketAddress) Class
+                .forName("java.net.UnixDomainSocketAddress")
+                .getMethod("of", Path.class)
+                .invoke(null, socketPath);
+        ServerSocketChannel serverChannel = (ServerSocketChannel) ServerSocketChannel.class
+                .getMethod("open", ProtocolFamily.class)
+                .invoke(null, StandardProtocolFamily.valueOf("UNIX"));
+        serverChannel.bind(address);
+
+        Thread server = new Thread(() -> {
+            try (SocketChannel channel = serverChannel.accept()) {
+                acknowledge(channel);
+            }
+            catch (IOException e) {
+                // client closed
+            }
+        });
+        server.start();
+
+        RelpConnection relpConnection = new RelpConnection(RelpClientSocket.unixSocket());
+        Assertions.assertTrue(relpConnection.connect(RelpClientSocket.UNIX_SOCKET_PREFIX + socketPath, 0));
+        for (int i = 0; i < 10; i++) {
+            RelpBatch relpBatch = new RelpBatch();
+            for (int j = 0; j < 100; j++) {
+                relpBatch.insert(("message " + j).getBytes(StandardCharsets.UTF_8));
+            }
+            relpConnection.commit(relpBatch);
+            Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        }
+        Assertions.assertTrue(relpConnection.disconnect());
+        relpConnection.tearDown();
+
+        server.join();
+        serverChannel.close();
+        Files.deleteIfExists(socketPath);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testMissingSocketFails() {
+        Assumptions.assumeTrue(RelpClientSocket.isUnixSocketSupported());
+        RelpConnection relpConnection = new RelpConnection(RelpClientSocket.unixSocket());
+        Assertions.assertThrows(IOException.class, () -> relpConnection.connect("/nonexistent/relp.sock", 0));
+        relpConnection.tearDown();
+    }
+
+    /**
+     * Acknowledges every frame, close with an empty response, until the client closes the connection.
+     */
+    private static void acknowledge(SocketChannel channel) throws IOException {
+        RelpParser parser = new RelpParser();
+        ByteBuffer in = ByteBuffer.allocate(4096);
+        while (channel.read(in) != -1) {
+            in.flip();
+            while (in.hasRemaining()) {
+                parser.parse(in.get());
+                if (parser.isComplete()) {
+                    String ack = "close".equals(parser.getCommandString()) ? parser.getTxnId()
+                            + " rsp 0\n" : parser.getTxnId() + " rsp 6 200 OK\n";
+                    ByteBuffer out = ByteBuffer.wrap(ack.getBytes(StandardCharsets.US_ASCII));
+                    while (out.hasRemaining()) {
+                        channel.write(out);
+                    }
+                    parser.reset();
+                }
+            }
+            in.clear();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import com.teragrep.rlp_01.client.IManagedRelpConnection;
+import com.teragrep.rlp_01.client.IRelpConnection;
+import com.teragrep.rlp_01.client.ManagedRelpConnection;
+import com.teragrep.rlp_01.client.RelpConfig;
+import com.teragrep.rlp_01.client.RelpConnectionWithConfig;
+import org.junit.jupiter.api.Assertions;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Connections to a {@link RelpClientLoopbackSocket} shared by the client tests, and polling for conditions that other
+ * threads make true.
+ */
+public final class RelpLoopbackFixture {
+
+    private RelpLoopbackFixture() {
+    }
+
+    /**
+     * @return config of a loopback target that is reconnected to after 10 ms, without rebinding or idle reconnects
+     */
+    public static RelpConfig relpConfig() {
+        return new RelpConfig("loopback", 0, 10, 0, false, Duration.ZERO, false);
+    }
+
+    /**
+     * @return connection to a loopback server that acknowledges every frame at once
+     */
+    public static IRelpConnection relpConnection() {
+        return relpConnection(new RelpClientLoopbackSocket());
+    }
+
+    /**
+     * @param responder loopback server answering the frames
+     * @return connection to the loopback server
+     */
+    public static IRelpConnection relpConnection(RelpLoopbackResponder responder) {
+        return relpConnection(new RelpClientLoopbackSocket(responder));
+    }
+
+    /**
+     * @param relpClientSocket socket wrapping a loopback socket, such as a {@link RelpClientFaultInjectingSocket}
+     * @return connection over the socket with the loopback config
+     */
+    public static IRelpConnection relpConnection(RelpClientSocket relpClientSocket) {
+        return new RelpConnectionWithConfig(new RelpConnection(relpClientSocket), relpConfig());
+    }
+
+    /**
+     * @return managed connection to a loopback server that acknowledges every frame at once
+     */
+    public static IManagedRelpConnection managedConnection() {
+        return new ManagedRelpConnection(relpConnection());
+    }
+
+    /**
+     * @param responder loopback server answering the frames
+     * @return managed connection to the loopback server
+     */
+    public static IManagedRelpConnection managedConnection(RelpLoopbackResponder responder) {
+        return new ManagedRelpConnection(relpConnection(responder));
+    }
+
+    /**
+     * Polls the condition every millisecond until it holds, failing the test if it does not within 5 seconds.
+     *
+     * @param condition condition to wait for, may have side effects such as running a prober
+     */
+    public static void await(BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                Assertions.fail("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(1);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assertions.fail("Interrupted while waiting for a condition", e);
+            }
+        }
+    }
+}
@@ -205,4 +205,26 @@ public class SendMessageTest {
         }
     }
 
+    @Test
+    public void testSendBatchBusyPoll() {
+        RelpConnection relpSession = new RelpConnection();
+        relpSession.setBusyPoll(1000);
+        relpSession.setReadTimeout(5000);
+        Assertions.assertDoesNotThrow(() -> relpSession.connect(hostname, port));
+        String msg = "Hello, busy world!";
+        byte[] data = msg.getBytes(StandardCharsets.UTF_8);
+        int n = 50;
+        for (int i = 0; i < n; i++) {
+            RelpBatch batch = new RelpBatch();
+            batch.insert(data);
+            Assertions.assertDoesNotThrow(() -> relpSession.commit(batch));
+            Assertions.assertTrue(batch.verifyTransactionAll());
+        }
+        Assertions.assertDoesNotThrow(relpSession::disconnect);
+
+        Assertions.assertEquals(n, messageList.size());
+        for (int i = 0; i < n; i++) {
+            Assertions.assertEquals(msg, new String(messageList.get(i), StandardCharsets.UTF_8));
+        }
+    }
 }
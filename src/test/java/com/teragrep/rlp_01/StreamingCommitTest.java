@@ -0,0 +1,173 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StreamingCommitTest {
+
+    /**
+     * Generates payloads on demand, nothing is held in memory.
+     */
+    private Iterator<byte[]> payloads(int count) {
+        return new Iterator<byte[]>() {
+
+            private int generated = 0;
+
+            @Override
+            public boolean hasNext() {
+                return generated < count;
+            }
+
+            @Override
+            public byte[] next() {
+                generated++;
+                return ("message " + generated).getBytes(StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    @Test
+    public void testStreamFromIterator() {
+        CountingRelpClientSocket socket = new CountingRelpClientSocket(16384);
+        RelpConnection relpConnection = new RelpConnection(socket);
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        RelpStreamReport report = Assertions
+                .assertDoesNotThrow(() -> relpConnection.commitStream(payloads(100_000), 64));
+        Assertions.assertEquals(100_000, report.sent());
+        Assertions.assertEquals(100_000, report.acknowledged());
+        Assertions.assertEquals(0, report.failedCount());
+        Assertions.assertEquals(100_000, socket.frames);
+
+        // the connection is usable for regular commits afterwards
+        RelpBatch relpBatch = new RelpBatch();
+        relpBatch.insert("message".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertDoesNotThrow(() -> relpConnection.commit(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testStreamFromSupplier() {
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket());
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        AtomicInteger supplied = new AtomicInteger();
+        RelpStreamReport report = Assertions.assertDoesNotThrow(() -> relpConnection.commitStream(() -> {
+            if (supplied.incrementAndGet() > 1000) {
+                return null;
+            }
+            return "message".getBytes(StandardCharsets.UTF_8);
+        }, 10));
+        Assertions.assertEquals(1000, report.sent());
+        Assertions.assertEquals(1000, report.acknowledged());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testRejectedPayloadsAreReported() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 0.1, new Random(3));
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        RelpStreamReport report = Assertions.assertDoesNotThrow(() -> relpConnection.commitStream(payloads(1000), 32));
+        Assertions.assertEquals(1000, report.sent());
+        Assertions.assertTrue(report.failedCount() > 0);
+        Assertions.assertEquals(report.failedCount(), report.failed().size());
+        Assertions.assertEquals(report.sent(), report.acknowledged() + report.failedCount());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testBrokenStreamReportsInFlight() {
+        // open takes two operations, the stream breaks on its sixth read or write
+        RelpConnection relpConnection = new RelpConnection(
+                new RelpClientFaultInjectingSocket(
+                        new RelpClientLoopbackSocket(),
+                        new SocketFaults().withResets(new ScheduledFaultTrigger(8, 0))
+                )
+        );
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        RelpStreamException streamException = Assertions
+                .assertThrows(RelpStreamException.class, () -> relpConnection.commitStream(payloads(1000), 10));
+        RelpStreamReport report = streamException.getReport();
+        Assertions.assertTrue(report.sent() < 1000);
+        Assertions.assertTrue(report.failedCount() > 0);
+        Assertions.assertEquals(report.sent(), report.acknowledged() + report.failedCount());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testFailedSampleIsBounded() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 1, new Random(3));
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        RelpStreamReport report = Assertions
+                .assertDoesNotThrow(() -> relpConnection.commitStream(payloads(RelpConnection.MAX_FAILED_SAMPLE * 2), 32));
+        Assertions.assertEquals(RelpConnection.MAX_FAILED_SAMPLE * 2, report.failedCount());
+        Assertions.assertEquals(RelpConnection.MAX_FAILED_SAMPLE, report.failed().size());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testFailuresAreHandedToCallback() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 0.1, new Random(3));
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket(responder));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        AtomicInteger failures = new AtomicInteger();
+        RelpStreamReport report = Assertions
+                .assertDoesNotThrow(() -> relpConnection.commitStream(payloads(1000), 32, payload -> failures.incrementAndGet()));
+        Assertions.assertTrue(failures.get() > 0);
+        Assertions.assertEquals(failures.get(), report.failedCount());
+        Assertions.assertTrue(report.failed().isEmpty());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testStreamRequiresOpenConnection() {
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket());
+        Assertions.assertThrows(IllegalStateException.class, () -> relpConnection.commitStream(payloads(1), 1));
+    }
+
+    @Test
+    public void testSupplierIsNotPulledWhenStreamIsRejected() {
+        RelpConnection relpConnection = new RelpConnection(new RelpClientLoopbackSocket());
+        AtomicInteger supplied = new AtomicInteger();
+        Assertions.assertThrows(IllegalStateException.class, () -> relpConnection.commitStream(() -> {
+            supplied.incrementAndGet();
+            return "message".getBytes(StandardCharsets.UTF_8);
+        }, 1));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> relpConnection.commitStream(() -> {
+            supplied.incrementAndGet();
+            return "message".getBytes(StandardCharsets.UTF_8);
+        }, 0));
+        Assertions.assertEquals(0, supplied.get());
+        relpConnection.tearDown();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncRelpSenderTest {
+
+    @Test
+    public void testAllMessagesAreSent() {
+        BatchRecording connection = new BatchRecording();
+        AsyncRelpSender asyncRelpSender = new AsyncRelpSender(connection, 1024, 100, 1024 * 1024, 5);
+        Thread owner = new Thread(asyncRelpSender);
+        owner.start();
+
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    asyncRelpSender.send(("message " + j).getBytes(StandardCharsets.UTF_8));
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            Assertions.assertDoesNotThrow(() -> producer.join());
+        }
+        asyncRelpSender.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+
+        int frames = 0;
+        for (int batchFrames : connection.batches) {
+            Assertions.assertTrue(batchFrames <= 100);
+            frames += batchFrames;
+        }
+        Assertions.assertEquals(40_000, frames);
+        Assertions.assertTrue(connection.closed);
+    }
+
+    @Test
+    public void testByteLimit() {
+        BatchRecording connection = new BatchRecording();
+        AsyncRelpSender asyncRelpSender = new AsyncRelpSender(connection, 1024, 100, 1000, 1000);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(asyncRelpSender.offer(new byte[500]));
+        }
+        Thread owner = new Thread(asyncRelpSender);
+        owner.start();
+        asyncRelpSender.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+        Assertions.assertEquals(5, connection.batches.size());
+    }
+
+    @Test
+    public void testByteLimitIsNotExceeded() {
+        BatchRecording connection = new BatchRecording();
+        AsyncRelpSender asyncRelpSender = new AsyncRelpSender(connection, 1024, 100, 1000, 1000);
+        Assertions.assertTrue(asyncRelpSender.offer(new byte[2000]));
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(asyncRelpSender.offer(new byte[400]));
+        }
+        Thread owner = new Thread(asyncRelpSender);
+        owner.start();
+        asyncRelpSender.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+        // the oversized message alone, then two messages of 400 bytes per batch as a third would make 1200
+        Assertions.assertEquals(Arrays.asList(1, 2, 2, 2, 2, 2), connection.batches);
+    }
+
+    @Test
+    public void testLinger() {
+        BatchRecording connection = new BatchRecording();
+        AsyncRelpSender asyncRelpSender = new AsyncRelpSender(connection, 1024, 100, 1024 * 1024, 50);
+        Thread owner = new Thread(asyncRelpSender);
+        owner.start();
+
+        long sentAt = System.nanoTime();
+        asyncRelpSender.send("message".getBytes(StandardCharsets.UTF_8));
+        while (connection.batches.isEmpty()) {
+            Assertions.assertTrue(System.nanoTime() - sentAt < TimeUnit.SECONDS.toNanos(5));
+            Thread.yield();
+        }
+        Assertions.assertTrue(System.nanoTime() - sentAt >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        asyncRelpSender.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+    }
+
+    @Test
+    public void testOfferToFullRing() {
+        BatchRecording connection = new BatchRecording();
+        AsyncRelpSender asyncRelpSender = new AsyncRelpSender(connection, 4, 100, 1024 * 1024, 5);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(asyncRelpSender.offer(new byte[1]));
+        }
+        Assertions.assertFalse(asyncRelpSender.offer(new byte[1]));
+        Assertions.assertEquals(4, asyncRelpSender.pending());
+        asyncRelpSender.close();
+        Assertions.assertFalse(asyncRelpSender.offer(new byte[1]));
+        Assertions.assertThrows(IllegalStateException.class, () -> asyncRelpSender.send(new byte[1]));
+    }
+
+    @Test
+    public void testOverLoopbackConnection() {
+        AsyncRelpSender asyncRelpSender = new AsyncRelpSender(RelpLoopbackFixture.managedConnection());
+        Thread owner = new Thread(asyncRelpSender);
+        owner.start();
+        for (int i = 0; i < 10_000; i++) {
+            asyncRelpSender.send(("message " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        asyncRelpSender.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+        Assertions.assertEquals(0, asyncRelpSender.pending());
+    }
+
+    /**
+     * Records the amount of frames of each batch sent.
+     */
+    private static final class BatchRecording implements IManagedRelpConnection {
+
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+        private volatile boolean closed = false;
+
+        @Override
+        public long ensureSent(RelpBatch relpBatch) {
+            batches.add(relpBatch.getWorkQueueLength());
+            return 1;
+        }
+
+        @Override
+        public long ensureSent(byte[] bytes) {
+            batches.add(1);
+            return 1;
+        }
+
+        @Override
+        public CompletableFuture<Long> ensureSentAsync(byte[] bytes) {
+            return CompletableFuture.completedFuture(ensureSent(bytes));
+        }
+
+        @Override
+        public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+            return CompletableFuture.completedFuture(ensureSent(relpBatch));
+        }
+
+        @Override
+        public Executor executor() {
+            return Runnable::run;
+        }
+
+        @Override
+        public void reconnect() {
+            // not connected
+        }
+
+        @Override
+        public long connect() {
+            return 1;
+        }
+
+        @Override
+        public void forceReconnect() {
+            // not connected
+        }
+
+        @Override
+        public boolean isStub() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+}
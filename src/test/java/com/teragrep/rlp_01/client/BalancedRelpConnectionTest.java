@@ -0,0 +1,137 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpClientLoopbackSocket;
+import com.teragrep.rlp_01.RelpConnection;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BalancedRelpConnectionTest {
+
+    private IRelpConnection counting(AtomicInteger sent, Duration latency) {
+        return new RelpConnectionWithConfig(
+                new RelpConnection(new RelpClientLoopbackSocket(new RelpLoopbackResponder(latency, Duration.ZERO, 0))),
+                RelpLoopbackFixture.relpConfig()
+        ) {
+
+            @Override
+            public void commit(RelpBatch relpBatch) throws IOException, TimeoutException {
+                sent.incrementAndGet();
+                super.commit(relpBatch);
+            }
+        };
+    }
+
+    private IRelpConnection down(AtomicInteger connects) {
+        // skipped for a minute after it fails
+        RelpConfig downConfig = new RelpConfig("down", 601, 60_000, 0, false, Duration.ZERO, false);
+        return new RelpConnectionWithConfig(new RelpConnection(new RelpClientLoopbackSocket()), downConfig) {
+
+            @Override
+            public boolean connect(String hostname, int port) throws IOException {
+                connects.incrementAndGet();
+                throw new IOException("Connection refused");
+            }
+        };
+    }
+
+    @Test
+    public void testSlowTargetGetsLessTraffic() {
+        List<RelpTargetState> targets = Arrays
+                .asList(new RelpTargetState(new RelpTarget("fast", 601)), new RelpTargetState(new RelpTarget("slow", 601)));
+        AtomicInteger fast = new AtomicInteger();
+        AtomicInteger slow = new AtomicInteger();
+        List<IRelpConnection> connections = new ArrayList<>();
+        connections.add(counting(fast, Duration.ZERO));
+        connections.add(counting(slow, Duration.ofMillis(20)));
+
+        IManagedRelpConnection balanced = new BalancedRelpConnection(
+                targets,
+                connections,
+                new PowerOfTwoChoicesTargetSelector(new Random(1))
+        );
+        for (int i = 0; i < 50; i++) {
+            Assertions.assertEquals(1, balanced.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        }
+        Assertions.assertEquals(50, fast.get() + slow.get());
+        Assertions.assertTrue(slow.get() <= 2, "slow target got <" + slow.get() + "> batches");
+        Assertions.assertEquals(0, targets.get(0).inFlight());
+        Assertions.assertTrue(targets.get(1).latencyNanos() > targets.get(0).latencyNanos());
+        Assertions.assertDoesNotThrow(balanced::close);
+    }
+
+    @Test
+    public void testDownTargetIsSkipped() {
+        List<RelpTargetState> targets = Arrays
+                .asList(new RelpTargetState(new RelpTarget("up", 601)), new RelpTargetState(new RelpTarget("down", 601)));
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger connects = new AtomicInteger();
+        List<IRelpConnection> connections = new ArrayList<>();
+        connections.add(counting(sent, Duration.ZERO));
+        connections.add(down(connects));
+
+        IManagedRelpConnection balanced = new BalancedRelpConnection(
+                targets,
+                connections,
+                new RoundRobinTargetSelector(),
+                (attempt, previousDelay) -> 60_000
+        );
+        long attempts = 0;
+        for (int i = 0; i < 20; i++) {
+            attempts += Assertions
+                    .assertTimeoutPreemptively(Duration.ofSeconds(10), () -> balanced.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        }
+        Assertions.assertEquals(20, sent.get());
+        Assertions.assertTrue(connects.get() <= 1, "down target was tried <" + connects.get() + "> times");
+        Assertions.assertEquals(20 + connects.get(), attempts);
+        Assertions.assertFalse(targets.get(1).available(TimeUnit.MINUTES.toNanos(1)));
+        Assertions.assertTrue(targets.get(0).available(TimeUnit.MINUTES.toNanos(1)));
+        Assertions.assertEquals(0, targets.get(0).inFlight());
+        Assertions.assertEquals(0, targets.get(1).inFlight());
+        Assertions.assertDoesNotThrow(balanced::close);
+    }
+
+    @Test
+    public void testFactoryBalancesOverTargets() {
+        RelpConnectionFactory factory = new RelpConnectionFactory(
+                RelpLoopbackFixture.relpConfig(),
+                Arrays.asList(new RelpTarget("first", 601), new RelpTarget("second", 602, 2)),
+                new RoundRobinTargetSelector()
+        );
+        IManagedRelpConnection managedRelpConnection = factory.get();
+        Assertions.assertTrue(managedRelpConnection instanceof BalancedRelpConnection);
+        Assertions.assertEquals(2, factory.targets().size());
+        Assertions.assertEquals("second", factory.targets().get(1).target().relpTarget);
+        Assertions
+                .assertFalse(new RelpConnectionFactory(RelpLoopbackFixture.relpConfig()).get() instanceof BalancedRelpConnection);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpClientLoopbackSocket;
+import com.teragrep.rlp_01.RelpConnection;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import com.teragrep.rlp_01.RelpStreamReport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams through the default commitStream methods of {@link IRelpConnection}, which are built on commit.
+ */
+public class BatchedStreamTest {
+
+    @Test
+    public void testStreamFromSupplier() {
+        IRelpConnection relpConnection = new CommitOnlyConnection(new RelpConnection(new RelpClientLoopbackSocket()));
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        AtomicInteger supplied = new AtomicInteger();
+        RelpStreamReport report = Assertions.assertDoesNotThrow(() -> relpConnection.commitStream(() -> {
+            if (supplied.incrementAndGet() > 1000) {
+                return null;
+            }
+            return "message".getBytes(StandardCharsets.UTF_8);
+        }, 64));
+        Assertions.assertEquals(1000, report.sent());
+        Assertions.assertEquals(1000, report.acknowledged());
+        Assertions.assertEquals(0, report.failedCount());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testRejectedPayloadsAreReported() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 0.1, new Random(3));
+        IRelpConnection relpConnection = new CommitOnlyConnection(
+                new RelpConnection(new RelpClientLoopbackSocket(responder))
+        );
+        Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(relpConnection.connect("loopback", 0)));
+
+        AtomicInteger supplied = new AtomicInteger();
+        RelpStreamReport report = Assertions.assertDoesNotThrow(() -> relpConnection.commitStream(() -> {
+            if (supplied.incrementAndGet() > 1000) {
+                return null;
+            }
+            return "message".getBytes(StandardCharsets.UTF_8);
+        }, 32));
+        Assertions.assertEquals(1000, report.sent());
+        Assertions.assertTrue(report.failedCount() > 0);
+        Assertions.assertEquals(report.failedCount(), report.failed().size());
+        Assertions.assertEquals(report.sent(), report.acknowledged() + report.failedCount());
+        relpConnection.tearDown();
+    }
+
+    @Test
+    public void testStreamOnClosedConnectionHandsBackPayloads() {
+        IRelpConnection relpConnection = new CommitOnlyConnection(new RelpConnection(new RelpClientLoopbackSocket()));
+        AtomicInteger failures = new AtomicInteger();
+        Assertions
+                .assertThrows(
+                        IllegalStateException.class,
+                        () -> relpConnection.commitStream(Arrays.asList("first".getBytes(StandardCharsets.UTF_8), "second".getBytes(StandardCharsets.UTF_8)).iterator(), 10, payload -> failures.incrementAndGet())
+                );
+        Assertions.assertEquals(2, failures.get());
+    }
+
+    /**
+     * Implements only the abstract methods of {@link IRelpConnection}, the streams use the default methods.
+     */
+    private final class CommitOnlyConnection implements IRelpConnection {
+
+        private final RelpConnection relpConnection;
+
+        private CommitOnlyConnection(RelpConnection relpConnection) {
+            this.relpConnection = relpConnection;
+        }
+
+        @Override
+        public int getReadTimeout() {
+            return relpConnection.getReadTimeout();
+        }
+
+        @Override
+        public void setReadTimeout(int readTimeout) {
+            relpConnection.setReadTimeout(readTimeout);
+        }
+
+        @Override
+        public int getWriteTimeout() {
+            return relpConnection.getWriteTimeout();
+        }
+
+        @Override
+        public void setWriteTimeout(int writeTimeout) {
+            relpConnection.setWriteTimeout(writeTimeout);
+        }
+
+        @Override
+        public int getConnectionTimeout() {
+            return relpConnection.getConnectionTimeout();
+        }
+
+        @Override
+        public void setConnectionTimeout(int timeout) {
+            relpConnection.setConnectionTimeout(timeout);
+        }
+
+        @Override
+        public void setKeepAlive(boolean on) {
+            relpConnection.setKeepAlive(on);
+        }
+
+        @Override
+        public int getRxBufferSize() {
+            return relpConnection.getRxBufferSize();
+        }
+
+        @Override
+        public void setRxBufferSize(int size) {
+            relpConnection.setRxBufferSize(size);
+        }
+
+        @Override
+        public int getTxBufferSize() {
+            return relpConnection.getTxBufferSize();
+        }
+
+        @Override
+        public void setTxBufferSize(int size) {
+            relpConnection.setTxBufferSize(size);
+        }
+
+        @Override
+        public boolean connect(String hostname, int port) throws IOException, TimeoutException {
+            return relpConnection.connect(hostname, port);
+        }
+
+        @Override
+        public void tearDown() {
+            relpConnection.tearDown();
+        }
+
+        @Override
+        public boolean disconnect() throws IOException, TimeoutException {
+            return relpConnection.disconnect();
+        }
+
+        @Override
+        public void commit(RelpBatch relpBatch) throws IOException, TimeoutException {
+            relpConnection.commit(relpBatch);
+        }
+
+        @Override
+        public RelpConfig relpConfig() {
+            return RelpLoopbackFixture.relpConfig();
+        }
+    }
+}
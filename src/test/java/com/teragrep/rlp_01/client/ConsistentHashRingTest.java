@@ -0,0 +1,81 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConsistentHashRingTest {
+
+    private final ConsistentHashRing ring = new ConsistentHashRing(
+            Arrays.asList("first:601", "second:601", "third:601", "fourth:601"),
+            160
+    );
+
+    @Test
+    public void testKeysSpreadEvenly() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(ring.node("host-" + i), 1, Integer::sum);
+        }
+        Assertions.assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            // within 20% of the fair share
+            Assertions.assertTrue(count > 8_000 && count < 12_000, "node got <" + count + "> keys");
+        }
+    }
+
+    @Test
+    public void testAddingMovesOnlyItsShare() {
+        ConsistentHashRing added = ring.with("fifth:601");
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = "host-" + i;
+            String before = ring.node(key);
+            String after = added.node(key);
+            if (!before.equals(after)) {
+                // keys only ever move to the new node
+                Assertions.assertEquals("fifth:601", after);
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved > 1_200 && moved < 2_800, "moved <" + moved + "> keys");
+    }
+
+    @Test
+    public void testRemovingMovesOnlyItsKeys() {
+        ConsistentHashRing removed = ring.without("second:601");
+        for (int i = 0; i < 10_000; i++) {
+            String key = "host-" + i;
+            String before = ring.node(key);
+            if (!"second:601".equals(before)) {
+                Assertions.assertEquals(before, removed.node(key));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyRing() {
+        ConsistentHashRing empty = new ConsistentHashRing(Collections.emptyList(), 160);
+        Assertions.assertThrows(IllegalStateException.class, () -> empty.node("host"));
+    }
+}
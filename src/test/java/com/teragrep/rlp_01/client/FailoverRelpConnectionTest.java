@@ -0,0 +1,107 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpClientFaultInjectingSocket;
+import com.teragrep.rlp_01.RelpClientLoopbackSocket;
+import com.teragrep.rlp_01.RelpConnection;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.SocketFaults;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+public class FailoverRelpConnectionTest {
+
+    private final AtomicBoolean primaryDown = new AtomicBoolean();
+
+    private Supplier<IRelpConnection> target(String name, AtomicBoolean down) {
+        RelpConfig relpConfig = new RelpConfig(name, 0, 10_000, 0, false, Duration.ZERO, false);
+        return () -> new RelpConnectionWithConfig(
+                new RelpConnection(
+                        new RelpClientFaultInjectingSocket(
+                                new RelpClientLoopbackSocket(),
+                                new SocketFaults().withResets(down::get)
+                        )
+                ),
+                relpConfig
+        );
+    }
+
+    private FailoverRelpConnection failover(Duration stablePeriod) {
+        return new FailoverRelpConnection(
+                Arrays.asList(target("primary", primaryDown), target("standby", new AtomicBoolean())),
+                stablePeriod
+        );
+    }
+
+    @Test
+    public void testFailoverAndStickyFailBack() {
+        FailoverRelpConnection failover = failover(Duration.ofMillis(100));
+        IManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(failover);
+
+        primaryDown.set(true);
+        long start = System.nanoTime();
+        Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        // did not sleep the 10 s reconnect interval
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        Assertions.assertEquals(1, failover.active());
+        Assertions.assertEquals("standby", failover.relpConfig().relpTarget);
+        Assertions.assertTrue(failover.isDown(0));
+
+        failover.run();
+        managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, failover.active());
+
+        // recovered, but not yet for the stable period
+        primaryDown.set(false);
+        failover.run();
+        managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, failover.active());
+
+        // fails back on the first commit after the primary has been healthy for the stable period
+        RelpLoopbackFixture.await(() -> {
+            failover.run();
+            managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8));
+            return failover.active() == 0;
+        });
+        Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(0, failover.active());
+        Assertions.assertFalse(failover.isDown(0));
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+
+    @Test
+    public void testCommitFailureMovesToStandby() {
+        FailoverRelpConnection failover = failover(Duration.ZERO);
+        IManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(failover);
+        Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(0, failover.active());
+
+        primaryDown.set(true);
+        long start = System.nanoTime();
+        Assertions.assertEquals(2, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        Assertions.assertEquals(1, failover.active());
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+}
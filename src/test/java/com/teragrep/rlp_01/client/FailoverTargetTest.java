@@ -0,0 +1,44 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FailoverTargetTest {
+
+    @Test
+    public void testStableForAnyNanoTime() {
+        FailoverTarget target = new FailoverTarget(() -> null);
+        Assertions.assertFalse(target.stableFor(10, 100));
+
+        // System.nanoTime() may be 0, or negative, like any other value
+        target.probeSucceeded(0);
+        Assertions.assertFalse(target.stableFor(10, 5));
+        Assertions.assertTrue(target.stableFor(10, 10));
+        // a run of successful probes keeps its start
+        target.probeSucceeded(8);
+        Assertions.assertTrue(target.stableFor(10, 10));
+
+        target.probeFailed();
+        Assertions.assertFalse(target.stableFor(10, 100));
+        target.probeSucceeded(-20);
+        Assertions.assertTrue(target.stableFor(10, -10));
+        target.failed();
+        Assertions.assertFalse(target.stableFor(10, 100));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpClientFaultInjectingSocket;
+import com.teragrep.rlp_01.RelpClientLoopbackSocket;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import com.teragrep.rlp_01.RandomFaultTrigger;
+import com.teragrep.rlp_01.SocketFaults;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+
+public class LoopbackManagedRelpConnectionTest {
+
+    @Test
+    public void testEnsureSentRetriesFailures() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ZERO, Duration.ZERO, 0.3, new Random(1));
+        IManagedRelpConnection managedRelpConnection = RelpLoopbackFixture.managedConnection(responder);
+
+        RelpBatch relpBatch = new RelpBatch();
+        for (int i = 0; i < 100; i++) {
+            relpBatch.insert(("message " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        long attempts = managedRelpConnection.ensureSent(relpBatch);
+        Assertions.assertTrue(attempts > 1);
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+
+    @Test
+    public void testRebindableConnection() {
+        IManagedRelpConnection managedRelpConnection = new RebindableRelpConnection(
+                RelpLoopbackFixture.managedConnection(),
+                10
+        );
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        }
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+
+    @Test
+    public void testEnsureSentOverResettingConnection() {
+        IManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(
+                RelpLoopbackFixture
+                        .relpConnection(
+                                new RelpClientFaultInjectingSocket(
+                                        new RelpClientLoopbackSocket(),
+                                        new SocketFaults().withResets(new RandomFaultTrigger(0.2, new Random(1)))
+                                )
+                        )
+        );
+        for (int i = 0; i < 20; i++) {
+            RelpBatch relpBatch = new RelpBatch();
+            for (int j = 0; j < 10; j++) {
+                relpBatch.insert(("message " + j).getBytes(StandardCharsets.UTF_8));
+            }
+            managedRelpConnection.ensureSent(relpBatch);
+            Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        }
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ManagedRelpConnectionAsyncTest {
+
+    private IRelpConnection loopbackConnection() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofMillis(1), Duration.ZERO, 0);
+        return RelpLoopbackFixture.relpConnection(responder);
+    }
+
+    @Test
+    public void testEnsureSentAsyncOnOwnThread() {
+        IManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(loopbackConnection());
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(managedRelpConnection.ensureSentAsync(("message " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        for (CompletableFuture<Long> future : futures) {
+            Assertions.assertEquals(1L, Assertions.assertDoesNotThrow(() -> future.get(10, TimeUnit.SECONDS)));
+        }
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+
+    @Test
+    public void testEnsureSentAsyncOnSharedPool() {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        IManagedRelpConnection managedRelpConnection = new RebindableRelpConnection(
+                new ManagedRelpConnection(loopbackConnection(), executorService),
+                10
+        );
+        List<RelpBatch> batches = new ArrayList<>();
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            RelpBatch relpBatch = new RelpBatch();
+            relpBatch.insert(("message " + i).getBytes(StandardCharsets.UTF_8));
+            relpBatch.insert(("message " + i).getBytes(StandardCharsets.UTF_8));
+            batches.add(relpBatch);
+            // the connection is not thread-safe, the sends must not overlap on the pool
+            futures.add(managedRelpConnection.ensureSentAsync(relpBatch));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        Assertions.assertDoesNotThrow(() -> all.get(10, TimeUnit.SECONDS));
+        for (RelpBatch relpBatch : batches) {
+            Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        }
+        CompletableFuture<Void> closed = CompletableFuture.runAsync(() -> {
+            Assertions.assertDoesNotThrow(managedRelpConnection::close);
+        }, managedRelpConnection.executor());
+        Assertions.assertDoesNotThrow(() -> closed.get(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testEnsureSentAsyncDefaults() {
+        IManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(loopbackConnection());
+        // implements the synchronous methods only, like connections written before the asynchronous ones
+        IManagedRelpConnection synchronousConnection = new IManagedRelpConnection() {
+
+            @Override
+            public void reconnect() {
+                managedRelpConnection.reconnect();
+            }
+
+            @Override
+            public long connect() throws IOException {
+                return managedRelpConnection.connect();
+            }
+
+            @Override
+            public void forceReconnect() {
+                managedRelpConnection.forceReconnect();
+            }
+
+            @Override
+            public long ensureSent(byte[] bytes) {
+                return managedRelpConnection.ensureSent(bytes);
+            }
+
+            @Override
+            public long ensureSent(RelpBatch relpBatch) {
+                return managedRelpConnection.ensureSent(relpBatch);
+            }
+
+            @Override
+            public boolean isStub() {
+                return false;
+            }
+
+            @Override
+            public void close() throws IOException {
+                managedRelpConnection.close();
+            }
+        };
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(synchronousConnection.ensureSentAsync(("message " + i).getBytes(StandardCharsets.UTF_8)));
+            RelpBatch relpBatch = new RelpBatch();
+            relpBatch.insert(("message " + i).getBytes(StandardCharsets.UTF_8));
+            futures.add(synchronousConnection.ensureSentAsync(relpBatch));
+        }
+        for (CompletableFuture<Long> future : futures) {
+            Assertions.assertEquals(1L, Assertions.assertDoesNotThrow(() -> future.get(10, TimeUnit.SECONDS)));
+        }
+        CompletableFuture<Void> closed = CompletableFuture
+                .runAsync(() -> Assertions.assertDoesNotThrow(synchronousConnection::close), synchronousConnection.executor());
+        Assertions.assertDoesNotThrow(() -> closed.get(10, TimeUnit.SECONDS));
+    }
+}
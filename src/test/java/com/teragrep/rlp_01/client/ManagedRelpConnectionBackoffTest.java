@@ -0,0 +1,103 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpClientFaultInjectingSocket;
+import com.teragrep.rlp_01.RelpClientLoopbackSocket;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.SocketFaults;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ManagedRelpConnectionBackoffTest {
+
+    private IRelpConnection failing(AtomicInteger faults, int failures) {
+        return RelpLoopbackFixture
+                .relpConnection(
+                        new RelpClientFaultInjectingSocket(
+                                new RelpClientLoopbackSocket(),
+                                new SocketFaults().withResets(() -> faults.getAndIncrement() < failures)
+                        )
+                );
+    }
+
+    @Test
+    public void testConnectHonoursInterrupt() {
+        ManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(
+                failing(new AtomicInteger(), Integer.MAX_VALUE),
+                new ReconnectBackoffFixed(60_000)
+        );
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        Assertions.assertThrows(IllegalStateException.class, managedRelpConnection::connect);
+        // the interrupt is kept for the caller to see
+        Assertions.assertTrue(Thread.interrupted());
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos());
+    }
+
+    @Test
+    public void testConnectBacksOff() {
+        AtomicInteger delays = new AtomicInteger();
+        ManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(
+                failing(new AtomicInteger(), 3),
+                (attempt, previousDelay) -> {
+                    Assertions.assertEquals(delays.incrementAndGet(), attempt);
+                    return 1;
+                }
+        );
+        Assertions.assertEquals(4, managedRelpConnection.connect());
+        Assertions.assertEquals(3, delays.get());
+        Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertDoesNotThrow(managedRelpConnection::close);
+    }
+
+    @Test
+    public void testConnectAsyncOnScheduler() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ManagedRelpConnection managedRelpConnection = new ManagedRelpConnection(
+                    failing(new AtomicInteger(), 3),
+                    new ReconnectBackoffExponential(5, 20)
+            );
+            CompletableFuture<Long> connected = managedRelpConnection.connectAsync(scheduler);
+            Assertions.assertEquals(4, connected.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+            Assertions.assertDoesNotThrow(managedRelpConnection::close);
+
+            // cancelling stops the retries
+            AtomicInteger attempts = new AtomicInteger();
+            ManagedRelpConnection unreachable = new ManagedRelpConnection(
+                    failing(attempts, Integer.MAX_VALUE),
+                    new ReconnectBackoffFixed(5)
+            );
+            CompletableFuture<Long> retrying = unreachable.connectAsync(scheduler);
+            RelpLoopbackFixture.await(() -> attempts.get() >= 2);
+            Assertions.assertTrue(retrying.cancel(false));
+        }
+        finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
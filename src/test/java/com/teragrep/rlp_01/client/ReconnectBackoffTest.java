@@ -0,0 +1,70 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class ReconnectBackoffTest {
+
+    @Test
+    public void testFixed() {
+        ReconnectBackoff backoff = new ReconnectBackoffFixed(500);
+        Assertions.assertEquals(500, backoff.delay(1, 0));
+        Assertions.assertEquals(500, backoff.delay(100, 500));
+    }
+
+    @Test
+    public void testExponentialIsCapped() {
+        ReconnectBackoff backoff = new ReconnectBackoffExponential(100, 5000);
+        Assertions.assertEquals(100, backoff.delay(1, 0));
+        Assertions.assertEquals(200, backoff.delay(2, 100));
+        Assertions.assertEquals(3200, backoff.delay(6, 1600));
+        Assertions.assertEquals(5000, backoff.delay(7, 3200));
+        Assertions.assertEquals(5000, backoff.delay(1000, 5000));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ReconnectBackoffExponential(100, 10));
+    }
+
+    @Test
+    public void testDecorrelatedJitterSpreads() {
+        ReconnectBackoff backoff = new ReconnectBackoffDecorrelatedJitter(100, 10_000, new Random(1));
+        long delay = 0;
+        long previous;
+        boolean differs = false;
+        for (int attempt = 1; attempt <= 50; attempt++) {
+            previous = delay;
+            delay = backoff.delay(attempt, previous);
+            Assertions.assertTrue(delay >= 100 && delay <= 10_000, "delay <" + delay + ">");
+            Assertions.assertTrue(delay <= Math.max(100, previous) * 3);
+            differs |= delay != previous;
+        }
+        Assertions.assertTrue(differs);
+        Assertions
+                .assertEquals(
+                        Long.MAX_VALUE - 1, new ReconnectBackoffDecorrelatedJitter(
+                                Long.MAX_VALUE - 1,
+                                Long.MAX_VALUE - 1
+                        ).delay(2, Long.MAX_VALUE - 1)
+                );
+        Assertions
+                .assertThrows(
+                        IllegalArgumentException.class, () -> new ReconnectBackoffDecorrelatedJitter(100, 10_000, null)
+                );
+    }
+}
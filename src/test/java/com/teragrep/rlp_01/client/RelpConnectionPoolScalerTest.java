@@ -0,0 +1,156 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RelpConnectionPoolScalerTest {
+
+    private RelpConnectionPool pool(Duration latency) {
+        return new RelpConnectionPool(
+                () -> RelpLoopbackFixture.managedConnection(new RelpLoopbackResponder(latency, Duration.ZERO, 0)),
+                1,
+                4,
+                Duration.ofMinutes(1)
+        );
+    }
+
+    @Test
+    public void testQueueDepthWithHysteresis() {
+        RelpConnectionPool pool = pool(Duration.ZERO);
+        pool.setLimit(1);
+        AtomicLong queueDepth = new AtomicLong(100);
+        RelpConnectionPoolScaler scaler = new RelpConnectionPoolScaler(
+                pool,
+                queueDepth::get,
+                10,
+                2,
+                Duration.ofSeconds(1),
+                Duration.ofMillis(500),
+                2,
+                3
+        );
+
+        scaler.run();
+        Assertions.assertEquals(1, pool.getLimit());
+        scaler.run();
+        Assertions.assertEquals(2, pool.getLimit());
+        for (int i = 0; i < 10; i++) {
+            scaler.run();
+        }
+        Assertions.assertEquals(4, pool.getLimit());
+
+        // between the thresholds nothing changes
+        queueDepth.set(5);
+        for (int i = 0; i < 10; i++) {
+            scaler.run();
+        }
+        Assertions.assertEquals(4, pool.getLimit());
+
+        queueDepth.set(0);
+        scaler.run();
+        scaler.run();
+        Assertions.assertEquals(4, pool.getLimit());
+        scaler.run();
+        Assertions.assertEquals(3, pool.getLimit());
+        for (int i = 0; i < 30; i++) {
+            scaler.run();
+        }
+        Assertions.assertEquals(1, pool.getLimit());
+        pool.close();
+    }
+
+    @Test
+    public void testCommitLatency() {
+        RelpConnectionPool pool = pool(Duration.ofMillis(20));
+        pool.setLimit(1);
+        RelpConnectionPoolScaler scaler = new RelpConnectionPoolScaler(
+                pool,
+                () -> 0,
+                10,
+                0,
+                Duration.ofMillis(5),
+                Duration.ofMillis(1),
+                1,
+                1
+        );
+        IManagedRelpConnection managedRelpConnection = pool.get();
+        managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8));
+        pool.offer(managedRelpConnection);
+        scaler.run();
+        Assertions.assertEquals(2, pool.getLimit());
+
+        // no commits since the previous run
+        scaler.run();
+        Assertions.assertEquals(1, pool.getLimit());
+        pool.close();
+    }
+
+    @Test
+    public void testStalledCommitsDoNotScaleDown() {
+        RelpConnectionPool pool = pool(Duration.ZERO);
+        pool.setLimit(2);
+        RelpConnectionPoolScaler scaler = new RelpConnectionPoolScaler(
+                pool,
+                () -> 0,
+                10,
+                0,
+                Duration.ofMillis(5),
+                Duration.ofMillis(1),
+                1,
+                1
+        );
+        // borrowed and not committing, as if stuck reconnecting to a server that is down
+        IManagedRelpConnection managedRelpConnection = pool.get();
+        for (int i = 0; i < 10; i++) {
+            scaler.run();
+        }
+        Assertions.assertEquals(2, pool.getLimit());
+
+        // once idle the pool shrinks again
+        pool.offer(managedRelpConnection);
+        scaler.run();
+        Assertions.assertEquals(1, pool.getLimit());
+        pool.close();
+    }
+
+    @Test
+    public void testLoweredLimitRetiresConnections() {
+        RelpConnectionPool pool = pool(Duration.ZERO);
+        IManagedRelpConnection first = pool.get();
+        IManagedRelpConnection second = pool.get();
+        IManagedRelpConnection third = pool.get();
+        pool.offer(first);
+        Assertions.assertEquals(3, pool.getSize());
+
+        pool.setLimit(1);
+        Assertions.assertEquals(2, pool.getSize());
+        pool.offer(second);
+        Assertions.assertEquals(1, pool.getSize());
+        pool.offer(third);
+        Assertions.assertEquals(1, pool.getSize());
+        Assertions.assertEquals(1, pool.getIdle());
+        pool.close();
+    }
+}
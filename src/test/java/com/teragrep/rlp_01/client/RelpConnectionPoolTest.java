@@ -0,0 +1,165 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class RelpConnectionPoolTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final Supplier<IManagedRelpConnection> connectionSupplier = () -> {
+        created.incrementAndGet();
+        return RelpLoopbackFixture.managedConnection();
+    };
+
+    @Test
+    public void testWarmUp() {
+        RelpConnectionPool pool = new RelpConnectionPool(connectionSupplier, 3, 5, Duration.ofMinutes(1));
+        pool.warmUp();
+        Assertions.assertEquals(3, pool.getSize());
+        Assertions.assertEquals(3, pool.getIdle());
+        Assertions.assertEquals(3, created.get());
+
+        IManagedRelpConnection managedRelpConnection = pool.get();
+        Assertions.assertEquals(1, managedRelpConnection.ensureSent("message".getBytes(StandardCharsets.UTF_8)));
+        pool.offer(managedRelpConnection);
+        Assertions.assertEquals(3, created.get());
+        pool.close();
+        Assertions.assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void testThreadAffinity() {
+        RelpConnectionPool pool = new RelpConnectionPool(connectionSupplier, 0, 5, Duration.ofMinutes(1));
+        IManagedRelpConnection first = pool.get();
+        IManagedRelpConnection second = pool.get();
+        pool.offer(first);
+        pool.offer(second);
+
+        // the connection offered last is the one this thread gets back
+        for (int i = 0; i < 10; i++) {
+            IManagedRelpConnection managedRelpConnection = pool.get();
+            Assertions.assertSame(second, managedRelpConnection);
+            pool.offer(managedRelpConnection);
+        }
+        Assertions.assertEquals(10, pool.getAffinityHits());
+        Assertions.assertEquals(12, pool.getBorrows());
+        pool.close();
+    }
+
+    @Test
+    public void testThreadAffinityIsPerThread() throws Exception {
+        RelpConnectionPool pool = new RelpConnectionPool(connectionSupplier, 0, 5, Duration.ofMinutes(1));
+        IManagedRelpConnection first = pool.get();
+        pool.offer(first);
+
+        // another thread may take the idle connection but does not count it as its own
+        Thread other = new Thread(() -> pool.offer(pool.get()));
+        other.start();
+        other.join();
+        Assertions.assertEquals(0, pool.getAffinityHits());
+
+        IManagedRelpConnection again = pool.get();
+        Assertions.assertSame(first, again);
+        Assertions.assertEquals(0, pool.getAffinityHits());
+        pool.offer(again);
+        Assertions.assertSame(first, pool.get());
+        Assertions.assertEquals(1, pool.getAffinityHits());
+        pool.close();
+    }
+
+    @Test
+    public void testMaxSizeWaits() throws Exception {
+        RelpConnectionPool pool = new RelpConnectionPool(connectionSupplier, 0, 1, Duration.ofMinutes(1));
+        IManagedRelpConnection managedRelpConnection = pool.get();
+        Assertions.assertThrows(TimeoutException.class, () -> pool.get(10, TimeUnit.MILLISECONDS));
+
+        CountDownLatch borrowed = new CountDownLatch(1);
+        Thread borrower = new Thread(() -> {
+            pool.offer(pool.get());
+            borrowed.countDown();
+        });
+        borrower.start();
+        RelpLoopbackFixture.await(() -> pool.getWaiting() == 1);
+        Assertions.assertEquals(1, borrowed.getCount());
+        pool.offer(managedRelpConnection);
+        Assertions.assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+        borrower.join();
+
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertEquals(2, pool.getWaits());
+        Assertions.assertTrue(pool.getWaitTimeMax().toMillis() >= 10);
+        pool.close();
+    }
+
+    @Test
+    public void testHealthCheckReplaces() {
+        AtomicInteger checks = new AtomicInteger();
+        RelpConnectionPool pool = new RelpConnectionPool(
+                connectionSupplier,
+                0,
+                2,
+                Duration.ofMinutes(1),
+                connection -> checks.incrementAndGet() != 2
+        );
+        pool.offer(pool.get());
+        IManagedRelpConnection managedRelpConnection = pool.get();
+        Assertions.assertEquals(2, created.get());
+        Assertions.assertEquals(1, pool.getHealthCheckFailures());
+        Assertions.assertEquals(1, pool.getSize());
+        pool.offer(managedRelpConnection);
+        pool.close();
+    }
+
+    @Test
+    public void testEvictIdle() {
+        RelpConnectionPool pool = new RelpConnectionPool(connectionSupplier, 1, 3, Duration.ofMillis(10));
+        IManagedRelpConnection first = pool.get();
+        IManagedRelpConnection second = pool.get();
+        IManagedRelpConnection third = pool.get();
+        pool.offer(first);
+        pool.offer(second);
+        pool.offer(third);
+        RelpLoopbackFixture.await(() -> {
+            pool.evictIdle();
+            return pool.getSize() == 1;
+        });
+        Assertions.assertEquals(2, pool.getEvictions());
+        pool.close();
+    }
+
+    @Test
+    public void testClosed() {
+        RelpConnectionPool pool = new RelpConnectionPool(connectionSupplier);
+        IManagedRelpConnection managedRelpConnection = pool.get();
+        pool.close();
+        Assertions.assertTrue(pool.get().isStub());
+        Assertions.assertEquals(1, pool.getSize());
+        pool.offer(managedRelpConnection);
+        Assertions.assertEquals(0, pool.getSize());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class RelpKeyRouterTest {
+
+    @Test
+    public void testKeyStaysOnConnection() {
+        Map<String, IManagedRelpConnection> connections = new LinkedHashMap<>();
+        connections.put("first:601", RelpLoopbackFixture.managedConnection());
+        connections.put("second:601", RelpLoopbackFixture.managedConnection());
+        connections.put("third:601", RelpLoopbackFixture.managedConnection());
+        RelpKeyRouter router = new RelpKeyRouter(connections);
+
+        IManagedRelpConnection routed = router.route("host-1");
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(routed, router.route("host-1"));
+            futures.add(router.ensureSentAsync("host-1", ("message " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        for (CompletableFuture<Long> future : futures) {
+            Assertions.assertEquals(1, future.join());
+        }
+        Assertions.assertEquals(1, router.ensureSent("host-2", "message".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertDoesNotThrow(router::close);
+    }
+
+    @Test
+    public void testCloseWaitsForRoutedRecords() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofMillis(1), Duration.ZERO, 0);
+        Map<String, IManagedRelpConnection> connections = new LinkedHashMap<>();
+        connections.put("first:601", RelpLoopbackFixture.managedConnection(responder));
+        RelpKeyRouter router = new RelpKeyRouter(connections);
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(router.ensureSentAsync("host-1", ("message " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        Assertions.assertDoesNotThrow(router::close);
+        for (CompletableFuture<Long> future : futures) {
+            Assertions.assertTrue(future.isDone());
+            Assertions.assertEquals(1, future.join());
+        }
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        Map<String, IManagedRelpConnection> connections = new LinkedHashMap<>();
+        connections.put("first:601", RelpLoopbackFixture.managedConnection());
+        RelpKeyRouter router = new RelpKeyRouter(connections);
+        IManagedRelpConnection first = router.route("host-1");
+
+        IManagedRelpConnection second = RelpLoopbackFixture.managedConnection();
+        router.add("second:601", second);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> router.add("second:601", second));
+        boolean moved = false;
+        for (int i = 0; i < 100; i++) {
+            moved |= router.route("host-" + i) == second;
+        }
+        Assertions.assertTrue(moved);
+
+        Assertions.assertSame(first, router.remove("first:601"));
+        Assertions.assertNull(router.remove("first:601"));
+        Assertions.assertSame(second, router.route("host-1"));
+        Assertions.assertDoesNotThrow(first::close);
+        Assertions.assertDoesNotThrow(router::close);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RelpSinkTest {
+
+    private IManagedRelpConnection loopbackConnection() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofMillis(1), Duration.ZERO, 0);
+        return RelpLoopbackFixture.managedConnection(responder);
+    }
+
+    @Test
+    public void testDemandFollowsAcknowledgements() {
+        RelpSink relpSink = new RelpSink(loopbackConnection(), 64, 16);
+        AtomicLong demand = new AtomicLong();
+        AtomicLong emitted = new AtomicLong();
+        relpSink.onSubscribe(demand::addAndGet, () -> {
+        });
+        Assertions.assertEquals(64, demand.get());
+
+        // publisher emitting only what has been requested
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (emitted.get() < 5000) {
+            Assertions.assertTrue(System.nanoTime() < deadline);
+            // never more than the window is requested ahead of the acknowledgements
+            Assertions.assertTrue(demand.get() <= 64);
+            if (demand.get() > 0) {
+                demand.decrementAndGet();
+                relpSink.onNext(("message " + emitted.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+            }
+            else {
+                Thread.yield();
+            }
+        }
+        relpSink.onComplete();
+        Assertions.assertDoesNotThrow(() -> relpSink.completion().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUpstreamErrorFailsCompletion() {
+        RelpSink relpSink = new RelpSink(loopbackConnection(), 8, 4);
+        relpSink.onSubscribe(n -> {
+        }, () -> {
+        });
+        relpSink.onNext("message".getBytes(StandardCharsets.UTF_8));
+        IllegalStateException upstreamError = new IllegalStateException("upstream failed");
+        relpSink.onError(upstreamError);
+        ExecutionException executionException = Assertions
+                .assertThrows(ExecutionException.class, () -> relpSink.completion().get(10, TimeUnit.SECONDS));
+        Assertions.assertSame(upstreamError, executionException.getCause());
+    }
+
+    @Test
+    public void testCancel() {
+        RelpSink relpSink = new RelpSink(loopbackConnection(), 8, 4);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        relpSink.onSubscribe(n -> {
+        }, () -> upstreamCancelled.set(true));
+        relpSink.onNext("message".getBytes(StandardCharsets.UTF_8));
+        relpSink.cancel();
+        Assertions.assertTrue(upstreamCancelled.get());
+        Assertions.assertThrows(CancellationException.class, () -> relpSink.completion().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSecondSubscriptionIsCancelled() {
+        RelpSink relpSink = new RelpSink(loopbackConnection(), 8, 4);
+        relpSink.onSubscribe(n -> {
+        }, () -> {
+        });
+        AtomicBoolean secondCancelled = new AtomicBoolean();
+        AtomicLong secondDemand = new AtomicLong();
+        relpSink.onSubscribe(secondDemand::addAndGet, () -> secondCancelled.set(true));
+        Assertions.assertTrue(secondCancelled.get());
+        Assertions.assertEquals(0, secondDemand.get());
+    }
+
+    @Test
+    public void testRejectedSendFailsSink() {
+        RejectedExecutionException rejected = new RejectedExecutionException("executor is shut down");
+        IManagedRelpConnection rejecting = new ManagedRelpConnectionStub() {
+
+            @Override
+            public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+                throw rejected;
+            }
+        };
+        RelpSink relpSink = new RelpSink(rejecting, 8, 4);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        relpSink.onSubscribe(n -> {
+        }, () -> upstreamCancelled.set(true));
+        Assertions.assertDoesNotThrow(() -> relpSink.onNext("message".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertTrue(upstreamCancelled.get());
+        ExecutionException executionException = Assertions
+                .assertThrows(ExecutionException.class, () -> relpSink.completion().get(10, TimeUnit.SECONDS));
+        Assertions.assertSame(rejected, executionException.getCause());
+        // items after the failure are dropped
+        Assertions.assertDoesNotThrow(() -> relpSink.onNext("message".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testUpstreamIsSignalledWithoutLock() {
+        RelpSink relpSink = new RelpSink(loopbackConnection(), 4, 2);
+        AtomicBoolean locked = new AtomicBoolean();
+        AtomicLong demand = new AtomicLong();
+        relpSink.onSubscribe(n -> {
+            locked.compareAndSet(false, Thread.holdsLock(relpSink));
+            demand.addAndGet(n);
+        }, () -> locked.compareAndSet(false, Thread.holdsLock(relpSink)));
+        relpSink
+                .completion()
+                .whenComplete((ignored, throwable) -> locked.compareAndSet(false, Thread.holdsLock(relpSink)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int emitted = 0;
+        while (emitted < 100) {
+            Assertions.assertTrue(System.nanoTime() < deadline);
+            if (demand.get() > 0) {
+                demand.decrementAndGet();
+                relpSink.onNext(("message " + emitted++).getBytes(StandardCharsets.UTF_8));
+            }
+            else {
+                Thread.yield();
+            }
+        }
+        relpSink.cancel();
+        Assertions.assertThrows(CancellationException.class, () -> relpSink.completion().get(10, TimeUnit.SECONDS));
+        Assertions.assertFalse(locked.get());
+    }
+}
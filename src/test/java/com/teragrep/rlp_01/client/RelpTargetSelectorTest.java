@@ -0,0 +1,100 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class RelpTargetSelectorTest {
+
+    private final List<RelpTargetState> targets = Arrays
+            .asList(new RelpTargetState(new RelpTarget("first", 601, 3)), new RelpTargetState(new RelpTarget("second", 601, 1)));
+
+    @Test
+    public void testRoundRobinFollowsWeights() {
+        RelpTargetSelector selector = new RoundRobinTargetSelector();
+        int[] chosen = new int[2];
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            int index = selector.select(targets);
+            chosen[index]++;
+            order.append(index);
+        }
+        Assertions.assertEquals(6, chosen[0]);
+        Assertions.assertEquals(2, chosen[1]);
+        // smooth, the lighter target is not left to the end of the cycle
+        Assertions.assertEquals("00100010", order.toString());
+    }
+
+    @Test
+    public void testRoundRobinKeepsWeightsPerTarget() {
+        RelpTargetSelector selector = new RoundRobinTargetSelector();
+        RelpTargetState first = new RelpTargetState(new RelpTarget("first", 601, 3));
+        RelpTargetState second = new RelpTargetState(new RelpTarget("second", 601, 1));
+        RelpTargetState third = new RelpTargetState(new RelpTarget("third", 601, 1));
+        StringBuilder order = new StringBuilder();
+        List<RelpTargetState> thirdDown = Arrays.asList(first, second);
+        order.append(thirdDown.get(selector.select(thirdDown)).target().relpTarget);
+        // first goes down as third comes back, second moves to index 0 but keeps the weight it is owed
+        List<RelpTargetState> firstDown = Arrays.asList(second, third);
+        for (int i = 0; i < 4; i++) {
+            order.append(',').append(firstDown.get(selector.select(firstDown)).target().relpTarget);
+        }
+        Assertions.assertEquals("first,second,third,second,third", order.toString());
+    }
+
+    @Test
+    public void testLeastInFlight() {
+        RelpTargetSelector selector = new LeastInFlightTargetSelector();
+        targets.get(0).begin();
+        targets.get(0).begin();
+        // 2 in flight over weight 3 is less than 1 over weight 1
+        targets.get(1).begin();
+        Assertions.assertEquals(0, selector.select(targets));
+        targets.get(0).begin();
+        targets.get(0).begin();
+        Assertions.assertEquals(1, selector.select(targets));
+    }
+
+    @Test
+    public void testLeastInFlightSharesIdleTargets() {
+        RelpTargetSelector selector = new LeastInFlightTargetSelector();
+        int[] chosen = new int[2];
+        for (int i = 0; i < 10; i++) {
+            chosen[selector.select(targets)]++;
+        }
+        Assertions.assertEquals(5, chosen[0]);
+        Assertions.assertEquals(5, chosen[1]);
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesAvoidsSlowTarget() {
+        RelpTargetSelector selector = new PowerOfTwoChoicesTargetSelector(new Random(1));
+        targets.get(0).begin();
+        targets.get(0).end(50_000_000L);
+        targets.get(1).begin();
+        targets.get(1).end(1_000_000L);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(1, selector.select(targets));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PowerOfTwoChoicesTargetSelector(null));
+    }
+}
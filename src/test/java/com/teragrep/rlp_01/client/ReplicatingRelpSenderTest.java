@@ -0,0 +1,115 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicatingRelpSenderTest {
+
+    private IManagedRelpConnection target(Duration latency, double failureRate) {
+        return RelpLoopbackFixture
+                .managedConnection(new RelpLoopbackResponder(latency, Duration.ZERO, failureRate, new Random(1)));
+    }
+
+    private List<byte[]> payloads(int count) {
+        List<byte[]> payloads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payloads.add(("message " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    @Test
+    public void testQuorumDoesNotWaitForSlowTarget() throws Exception {
+        ReplicatingRelpSender sender = new ReplicatingRelpSender(
+                Arrays.asList(target(Duration.ZERO, 0), target(Duration.ZERO, 0), target(Duration.ofMillis(500), 0)),
+                2
+        );
+        List<byte[]> payloads = payloads(10);
+        long start = System.nanoTime();
+        RelpReplication replication = sender.ensureSent(payloads);
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofMillis(400).toNanos());
+        Assertions.assertFalse(replication.replicated().isDone());
+        for (int i = 0; i < payloads.size(); i++) {
+            Assertions.assertTrue(replication.acks(i) >= 2);
+        }
+
+        replication.replicated().get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < payloads.size(); i++) {
+            Assertions.assertEquals(3, replication.acks(i));
+        }
+        Assertions.assertDoesNotThrow(sender::close);
+    }
+
+    @Test
+    public void testLaggingTargetRetries() throws Exception {
+        ReplicatingRelpSender sender = new ReplicatingRelpSender(
+                Arrays.asList(target(Duration.ZERO, 0), target(Duration.ZERO, 0.3)),
+                1
+        );
+        List<byte[]> payloads = payloads(50);
+        RelpReplication replication = sender.send(payloads);
+        replication.quorum().get(5, TimeUnit.SECONDS);
+        replication.replicated().get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < payloads.size(); i++) {
+            Assertions.assertEquals(2, replication.acks(i));
+        }
+        Assertions.assertDoesNotThrow(sender::close);
+    }
+
+    @Test
+    public void testCloseWaitsForLaggingTarget() {
+        ReplicatingRelpSender sender = new ReplicatingRelpSender(
+                Arrays.asList(target(Duration.ZERO, 0), target(Duration.ofMillis(200), 0)),
+                1
+        );
+        List<byte[]> payloads = payloads(10);
+        RelpReplication replication = sender.ensureSent(payloads);
+        Assertions.assertDoesNotThrow(sender::close);
+        Assertions.assertTrue(replication.replicated().isDone());
+        for (int i = 0; i < payloads.size(); i++) {
+            Assertions.assertEquals(2, replication.acks(i));
+        }
+    }
+
+    @Test
+    public void testEmptyAndInvalid() {
+        Assertions
+                .assertThrows(
+                        IllegalArgumentException.class,
+                        () -> new ReplicatingRelpSender(Collections.singletonList(target(Duration.ZERO, 0)), 2)
+                );
+        ReplicatingRelpSender sender = new ReplicatingRelpSender(
+                Collections.singletonList(target(Duration.ZERO, 0)),
+                1
+        );
+        Assertions.assertTrue(sender.send(Collections.emptyList()).replicated().isDone());
+        Assertions.assertDoesNotThrow(sender::close);
+    }
+}
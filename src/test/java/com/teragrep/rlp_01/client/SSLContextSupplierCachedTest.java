@@ -0,0 +1,77 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SSLContextSupplierCachedTest {
+
+    @Test
+    public void testContextIsCreatedOnce() {
+        AtomicInteger contextsCreated = new AtomicInteger();
+        SSLContextSupplier countingSupplier = new SSLContextSupplier() {
+
+            @Override
+            public SSLContext get() {
+                contextsCreated.incrementAndGet();
+                try {
+                    SSLContext sslContext = SSLContext.getInstance("TLS");
+                    Assertions.assertDoesNotThrow(() -> sslContext.init(null, null, null));
+                    return sslContext;
+                }
+                catch (NoSuchAlgorithmException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            @Override
+            public boolean isStub() {
+                return false;
+            }
+        };
+
+        SSLContextSupplierCached cached = new SSLContextSupplierCached(countingSupplier, 100, 60);
+        SSLContext first = cached.get();
+        SSLContext second = cached.get();
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, contextsCreated.get());
+        Assertions.assertEquals(100, first.getClientSessionContext().getSessionCacheSize());
+        Assertions.assertEquals(60, first.getClientSessionContext().getSessionTimeout());
+        Assertions.assertFalse(cached.isStub());
+
+        // a rotated keystore is picked up once invalidated
+        cached.invalidate();
+        SSLContext third = cached.get();
+        Assertions.assertNotSame(first, third);
+        Assertions.assertSame(third, cached.get());
+        Assertions.assertEquals(2, contextsCreated.get());
+        Assertions.assertEquals(100, third.getClientSessionContext().getSessionCacheSize());
+    }
+
+    @Test
+    public void testStubnessIsDelegated() {
+        SSLContextSupplierCached cached = new SSLContextSupplierCached(new SSLContextSupplierStub());
+        Assertions.assertTrue(cached.isStub());
+        Assertions.assertThrows(UnsupportedOperationException.class, cached::get);
+    }
+}
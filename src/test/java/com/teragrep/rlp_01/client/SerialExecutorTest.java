@@ -0,0 +1,84 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SerialExecutorTest {
+
+    @Test
+    public void testRejectedTaskDoesNotStallExecutor() {
+        AtomicBoolean reject = new AtomicBoolean(true);
+        List<Runnable> accepted = new ArrayList<>();
+        Executor executor = new SerialExecutor(task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("rejected");
+            }
+            accepted.add(task);
+        });
+
+        List<Integer> ran = new ArrayList<>();
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> ran.add(1)));
+
+        reject.set(false);
+        executor.execute(() -> ran.add(2));
+        executor.execute(() -> ran.add(3));
+        // the tasks are handed to the executor one at a time
+        Assertions.assertEquals(1, accepted.size());
+        while (!accepted.isEmpty()) {
+            accepted.remove(0).run();
+        }
+        // the rejected task is not run
+        Assertions.assertEquals(Arrays.asList(2, 3), ran);
+    }
+
+    @Test
+    public void testQueuedTasksAreRetriedAfterRejection() {
+        AtomicBoolean reject = new AtomicBoolean(false);
+        List<Runnable> accepted = new ArrayList<>();
+        Executor executor = new SerialExecutor(task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("rejected");
+            }
+            accepted.add(task);
+        });
+
+        List<Integer> ran = new ArrayList<>();
+        executor.execute(() -> ran.add(1));
+        executor.execute(() -> ran.add(2));
+
+        // scheduling the queued task fails when the first one completes
+        reject.set(true);
+        Assertions.assertThrows(RejectedExecutionException.class, () -> accepted.remove(0).run());
+        Assertions.assertEquals(Arrays.asList(1), ran);
+
+        reject.set(false);
+        executor.execute(() -> ran.add(3));
+        while (!accepted.isEmpty()) {
+            accepted.remove(0).run();
+        }
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), ran);
+    }
+}
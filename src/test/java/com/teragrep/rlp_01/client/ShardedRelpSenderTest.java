@@ -0,0 +1,123 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class ShardedRelpSenderTest {
+
+    private RelpBatch batch(int size) {
+        RelpBatch relpBatch = new RelpBatch();
+        for (int i = 0; i < size; i++) {
+            relpBatch.insert(("message " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return relpBatch;
+    }
+
+    @Test
+    public void testShardsMergeIntoBatch() {
+        ShardedRelpSender sender = new ShardedRelpSender(
+                Arrays
+                        .asList(
+                                RelpLoopbackFixture.managedConnection(), RelpLoopbackFixture.managedConnection(),
+                                RelpLoopbackFixture.managedConnection()
+                        )
+        );
+        RelpBatch relpBatch = batch(1000);
+        // one attempt for each of the three shards
+        Assertions.assertEquals(3, sender.ensureSent(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(0, relpBatch.getWorkQueueLength());
+        Assertions.assertDoesNotThrow(sender::close);
+    }
+
+    @Test
+    public void testCloseWaitsForShards() {
+        List<IManagedRelpConnection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofMillis(1), Duration.ZERO, 0);
+            connections.add(RelpLoopbackFixture.managedConnection(responder));
+        }
+        ShardedRelpSender sender = new ShardedRelpSender(connections);
+        RelpBatch relpBatch = batch(100);
+        CompletableFuture<Long> sent = sender.ensureSentAsync(relpBatch);
+        Assertions.assertDoesNotThrow(sender::close);
+        Assertions.assertTrue(sent.isDone());
+        Assertions.assertEquals(3, sent.join());
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+    }
+
+    @Test
+    public void testFewerFramesThanConnections() {
+        ShardedRelpSender sender = new ShardedRelpSender(
+                Arrays
+                        .asList(
+                                RelpLoopbackFixture.managedConnection(), RelpLoopbackFixture.managedConnection(),
+                                RelpLoopbackFixture.managedConnection()
+                        )
+        );
+        RelpBatch relpBatch = batch(2);
+        Assertions.assertEquals(2, sender.ensureSent(relpBatch));
+        Assertions.assertTrue(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(0, sender.ensureSent(new RelpBatch()));
+        Assertions.assertDoesNotThrow(sender::close);
+    }
+
+    @Test
+    public void testFailedShardReturnsToWorkQueue() {
+        IManagedRelpConnection failing = new ManagedRelpConnectionStub() {
+
+            @Override
+            public CompletableFuture<Long> ensureSentAsync(RelpBatch relpBatch) {
+                CompletableFuture<Long> future = new CompletableFuture<>();
+                future.completeExceptionally(new IOException("target is gone"));
+                return future;
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+        ShardedRelpSender sender = new ShardedRelpSender(
+                Arrays.asList(RelpLoopbackFixture.managedConnection(), failing)
+        );
+        RelpBatch relpBatch = batch(10);
+        CompletionException exception = Assertions
+                .assertThrows(CompletionException.class, () -> sender.ensureSent(relpBatch));
+        Assertions.assertTrue(exception.getCause() instanceof IOException);
+        Assertions.assertFalse(relpBatch.verifyTransactionAll());
+        Assertions.assertEquals(5, relpBatch.getWorkQueueLength());
+
+        relpBatch.retryAllFailed();
+        Assertions.assertEquals(5, relpBatch.getWorkQueueLength());
+        Assertions.assertDoesNotThrow(sender::close);
+    }
+}
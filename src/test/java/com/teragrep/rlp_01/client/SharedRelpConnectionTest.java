@@ -0,0 +1,163 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpClientFaultInjectingSocket;
+import com.teragrep.rlp_01.RelpClientLoopbackSocket;
+import com.teragrep.rlp_01.RelpConnection;
+import com.teragrep.rlp_01.RelpFrameRX;
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpStreamReport;
+import com.teragrep.rlp_01.SocketFaults;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class SharedRelpConnectionTest {
+
+    @Test
+    public void testConcurrentProducers() {
+        SharedRelpConnection sharedRelpConnection = new SharedRelpConnection(RelpLoopbackFixture.relpConnection(), 100);
+        Thread owner = new Thread(sharedRelpConnection);
+        owner.start();
+
+        int producers = 8;
+        int messages = 1000;
+        List<List<CompletableFuture<RelpFrameRX>>> futures = new ArrayList<>();
+        List<Thread> producerThreads = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            List<CompletableFuture<RelpFrameRX>> producerFutures = new ArrayList<>();
+            futures.add(producerFutures);
+            producerThreads.add(new Thread(() -> {
+                for (int j = 0; j < messages; j++) {
+                    producerFutures.add(sharedRelpConnection.send(("message " + j).getBytes(StandardCharsets.UTF_8)));
+                }
+            }));
+        }
+        producerThreads.forEach(Thread::start);
+        for (Thread producerThread : producerThreads) {
+            Assertions.assertDoesNotThrow(() -> producerThread.join());
+        }
+
+        for (List<CompletableFuture<RelpFrameRX>> producerFutures : futures) {
+            Assertions.assertEquals(messages, producerFutures.size());
+            for (CompletableFuture<RelpFrameRX> future : producerFutures) {
+                RelpFrameRX response = Assertions.assertDoesNotThrow(() -> future.get(10, TimeUnit.SECONDS));
+                Assertions.assertEquals(200, response.getResponseCode());
+            }
+        }
+
+        sharedRelpConnection.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+    }
+
+    @Test
+    public void testSendAfterCloseFails() {
+        SharedRelpConnection sharedRelpConnection = new SharedRelpConnection(RelpLoopbackFixture.relpConnection());
+        Thread owner = new Thread(sharedRelpConnection);
+        owner.start();
+        sharedRelpConnection.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+
+        CompletableFuture<RelpFrameRX> future = sharedRelpConnection.send("message".getBytes(StandardCharsets.UTF_8));
+        ExecutionException executionException = Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertTrue(executionException.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void testQueueIsPolledWhileInFlight() {
+        AtomicReference<SharedRelpConnection> shared = new AtomicReference<>();
+        AtomicReference<CompletableFuture<RelpFrameRX>> second = new AtomicReference<>();
+        AtomicBoolean pulledWhileInFlight = new AtomicBoolean();
+        IRelpConnection relpConnection = new RelpConnectionWithConfig(
+                new RelpConnection(new RelpClientLoopbackSocket()),
+                RelpLoopbackFixture.relpConfig()
+        ) {
+
+            @Override
+            public RelpStreamReport commitStream(
+                    Iterator<byte[]> payloads,
+                    int maxInFlight,
+                    BiConsumer<byte[], RelpFrameRX> acknowledgements,
+                    Consumer<byte[]> failures
+            ) throws IOException {
+                List<byte[]> streamed = new ArrayList<>();
+                streamed.add(payloads.next());
+                if (second.get() == null) {
+                    // submitted while the first message is unacknowledged
+                    second.set(shared.get().send("second".getBytes(StandardCharsets.UTF_8)));
+                    pulledWhileInFlight.set(payloads.hasNext());
+                    streamed.add(payloads.next());
+                }
+                return super.commitStream(streamed.iterator(), maxInFlight, acknowledgements, failures);
+            }
+        };
+        SharedRelpConnection sharedRelpConnection = new SharedRelpConnection(relpConnection);
+        shared.set(sharedRelpConnection);
+        Thread owner = new Thread(sharedRelpConnection);
+        owner.start();
+
+        CompletableFuture<RelpFrameRX> first = sharedRelpConnection.send("first".getBytes(StandardCharsets.UTF_8));
+        RelpFrameRX response = Assertions.assertDoesNotThrow(() -> first.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(200, response.getResponseCode());
+        response = Assertions.assertDoesNotThrow(() -> second.get().get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(200, response.getResponseCode());
+        Assertions.assertTrue(pulledWhileInFlight.get());
+
+        sharedRelpConnection.close();
+        Assertions.assertDoesNotThrow(() -> owner.join());
+    }
+
+    @Test
+    public void testCloseInterruptsReconnect() {
+        IRelpConnection unreachable = RelpLoopbackFixture
+                .relpConnection(
+                        new RelpClientFaultInjectingSocket(
+                                new RelpClientLoopbackSocket(),
+                                new SocketFaults().withResets(() -> true)
+                        )
+                );
+        SharedRelpConnection sharedRelpConnection = new SharedRelpConnection(
+                unreachable,
+                16,
+                new ReconnectBackoffFixed(60_000)
+        );
+        Thread owner = new Thread(sharedRelpConnection);
+        owner.start();
+        CompletableFuture<RelpFrameRX> future = sharedRelpConnection.send("message".getBytes(StandardCharsets.UTF_8));
+
+        long start = System.nanoTime();
+        sharedRelpConnection.close();
+        Assertions.assertDoesNotThrow(() -> owner.join(TimeUnit.SECONDS.toMillis(10)));
+        Assertions.assertFalse(owner.isAlive());
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        ExecutionException executionException = Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertTrue(executionException.getCause() instanceof IOException);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+* Teragrep Reliable Event Logging Protocol (RELP) Library for Java
+* Copyright (C) 2021-2026 Suomen Kanuuna Oy
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.teragrep.rlp_01.client;
+
+import com.teragrep.rlp_01.RelpLoopbackFixture;
+import com.teragrep.rlp_01.RelpLoopbackResponder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+public class RelpFlowSubscriberTest {
+
+    private IManagedRelpConnection loopbackConnection() {
+        RelpLoopbackResponder responder = new RelpLoopbackResponder(Duration.ofMillis(1), Duration.ZERO, 0);
+        return RelpLoopbackFixture.managedConnection(responder);
+    }
+
+    @Test
+    public void testPublisherIsDrained() {
+        RelpFlowSubscriber subscriber = new RelpFlowSubscriber(new RelpSink(loopbackConnection(), 64, 16));
+        SubmissionPublisher<byte[]> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(subscriber);
+        for (int i = 0; i < 2000; i++) {
+            // blocks while the subscriber has no demand
+            publisher.submit(("message " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        publisher.close();
+        Assertions.assertDoesNotThrow(() -> subscriber.completion().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelEndsSubscription() {
+        RelpFlowSubscriber subscriber = new RelpFlowSubscriber(new RelpSink(loopbackConnection(), 8, 4));
+        SubmissionPublisher<byte[]> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(subscriber);
+        publisher.submit("message".getBytes(StandardCharsets.UTF_8));
+        subscriber.cancel();
+        Assertions.assertThrows(CancellationException.class, () -> subscriber.completion().get(10, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (publisher.hasSubscribers()) {
+            Assertions.assertTrue(System.nanoTime() < deadline);
+            Thread.yield();
+        }
+        publisher.close();
+    }
+}